@@ -0,0 +1,67 @@
+package com.taskgenie.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskgenie.prompt.ChatResponseReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatResponseBenchmark {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  // Shaped like a Groq completion: metadata around the choice, usage and provider fields after it
+  private static final String COMPLETION = """
+      {"id":"chatcmpl-8f2c1e0a","object":"chat.completion","created":1760000000,\
+      "model":"llama-3.1-8b-instant","choices":[{"index":0,"message":{"role":"assistant",\
+      "content":"1. Draft the agenda and share it with the team\\n2. Book a room for Thursday\\n\
+      3. Collect status updates from each project lead\\n4. Prepare the quarterly slides\\n\
+      5. Send a follow-up summary after the meeting"},"logprobs":null,"finish_reason":"stop"}],\
+      "usage":{"queue_time":0.0021,"prompt_tokens":412,"prompt_time":0.031,"completion_tokens":58,\
+      "completion_time":0.077,"total_tokens":470,"total_time":0.108},"system_fingerprint":"fp_9ceb5c3b4e",\
+      "x_groq":{"id":"req_01k7z3v8h0f4b9m2"}}""";
+
+  private static final String CHUNK = """
+      {"id":"chatcmpl-8f2c1e0a","object":"chat.completion.chunk","created":1760000000,\
+      "model":"llama-3.1-8b-instant","system_fingerprint":"fp_9ceb5c3b4e","choices":[{"index":0,\
+      "delta":{"content":" the team"},"logprobs":null,"finish_reason":null}]}""";
+
+  @Benchmark
+  public String contentStreaming() {
+    return ChatResponseReader.content(COMPLETION);
+  }
+
+  @Benchmark
+  public String contentTreeBaseline() throws Exception {
+    // How AiService read completions before: the whole body materialized as a tree
+    JsonNode contentNode = OBJECT_MAPPER.readTree(COMPLETION).path("choices").path(0).path("message").path("content");
+    return contentNode.isMissingNode() || contentNode.isNull() ? null : contentNode.asText();
+  }
+
+  @Benchmark
+  public String deltaStreaming() {
+    return ChatResponseReader.delta(CHUNK);
+  }
+
+  @Benchmark
+  public String deltaTreeBaseline() throws Exception {
+    JsonNode contentNode = OBJECT_MAPPER.readTree(CHUNK).path("choices").path(0).path("delta").path("content");
+    return contentNode.isMissingNode() || contentNode.isNull() ? null : contentNode.asText();
+  }
+}
@@ -0,0 +1,67 @@
+package com.taskgenie.benchmark;
+
+import com.taskgenie.util.JwtUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+  private static final String SECRET = "benchmark-secret-that-is-at-least-32-bytes-long";
+
+  private JwtUtil cachingJwtUtil;
+
+  private JwtUtil uncachedJwtUtil;
+
+  private String token;
+
+  private String userId;
+
+  @Setup
+  public void setUp() {
+    cachingJwtUtil = new JwtUtil(SECRET, 3_600_000, 10_000);
+    uncachedJwtUtil = new JwtUtil(SECRET, 3_600_000, 0);
+    userId = UUID.randomUUID().toString();
+    token = cachingJwtUtil.generateToken(userId, "bench@taskgenie.dev");
+    cachingJwtUtil.parseClaims(token);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return cachingJwtUtil.generateToken(userId, "bench@taskgenie.dev");
+  }
+
+  @Benchmark
+  public Object parseClaimsCacheHit() {
+    return cachingJwtUtil.parseClaims(token);
+  }
+
+  @Benchmark
+  public Object parseClaimsCacheMiss() {
+    return uncachedJwtUtil.parseClaims(token);
+  }
+
+  @Benchmark
+  public Object validateThenGetUserIdBaseline() {
+    // The pre-cache filter path: two full parses of the same token
+    uncachedJwtUtil.validateToken(token);
+    return uncachedJwtUtil.getUserId(token);
+  }
+}
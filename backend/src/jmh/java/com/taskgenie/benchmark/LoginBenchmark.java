@@ -0,0 +1,64 @@
+package com.taskgenie.benchmark;
+
+import com.taskgenie.service.PasswordHasher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks per second and their latency distribution (SampleTime reports p99) at each bcrypt
+ * strength. A login costs one check, so the throughput of {@code verifyDirect} per thread times the
+ * cores given to security.bcrypt.threads is the login capacity; {@code verifyThroughHasher} shows the
+ * extra wait when more callers than hashing threads arrive at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LoginBenchmark {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({"8", "10", "12"})
+  public int strength;
+
+  private BCryptPasswordEncoder encoder;
+
+  private PasswordHasher hasher;
+
+  private String hash;
+
+  @Setup
+  public void setUp() {
+    encoder = new BCryptPasswordEncoder(strength);
+    // Daemon threads, so the pool needs no teardown
+    hasher = new PasswordHasher(encoder, 2, 64);
+    hash = encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean verifyDirect() {
+    return encoder.matches(PASSWORD, hash);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean verifyThroughHasher() {
+    return hasher.matches(PASSWORD, hash);
+  }
+}
@@ -0,0 +1,133 @@
+package com.taskgenie.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskgenie.prompt.ChatRequestWriter;
+import com.taskgenie.prompt.PromptTemplates;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the parse-task request body the old way (string concatenation plus a formatted text block),
+ * with ObjectMapper over a Map, and with the compiled template and streaming writer. Run with
+ * {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptRequestBenchmark {
+
+  private static final String MODEL = "llama-3.1-8b-instant";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private LocalDate today;
+
+  private String text;
+
+  @Setup
+  public void setUp() {
+    today = LocalDate.of(2026, 10, 14);
+    text = "finish the quarterly client presentation before friday, it is urgent";
+    if (!legacyPrompt(text, today).equals(templatePrompt(text, today))) {
+      throw new IllegalStateException("Template no longer matches the legacy prompt");
+    }
+  }
+
+  @Benchmark
+  public byte[] legacyRequest() {
+    return legacyRequestJson(legacyPrompt(text, today), false).getBytes(StandardCharsets.UTF_8);
+  }
+
+  // The straightforward escaping fix: serialize a Map with ObjectMapper
+  @Benchmark
+  public byte[] mapperRequest() throws JsonProcessingException {
+    Map<String, Object> message = Map.of("role", "user", "content", legacyPrompt(text, today));
+    return OBJECT_MAPPER.writeValueAsBytes(Map.of("model", MODEL, "stream", false, "messages", List.of(message)));
+  }
+
+  @Benchmark
+  public byte[] templateRequest() {
+    return ChatRequestWriter.write(MODEL, templatePrompt(text, today), false);
+  }
+
+  @Benchmark
+  public String legacyPromptOnly() {
+    return legacyPrompt(text, today);
+  }
+
+  @Benchmark
+  public String templatePromptOnly() {
+    return templatePrompt(text, today);
+  }
+
+  private static String templatePrompt(String text, LocalDate today) {
+    return PromptTemplates.PARSE_TASK.render(Map.of(
+        "today", today, "tomorrow", today.plusDays(1), "nextWeek", today.plusDays(7), "text", text));
+  }
+
+  // The request body as AiService built it before: unescaped, so quotes in the prompt broke the JSON
+  private static String legacyRequestJson(String prompt, boolean stream) {
+    return """
+      {
+        "model": "%s",
+        "stream": %s,
+        "messages": [
+          {
+            "role": "user",
+            "content": "%s"
+          }
+        ]
+      }
+      """.formatted(MODEL, stream, prompt);
+  }
+
+  private static String legacyPrompt(String text, LocalDate today) {
+    String todayStr = today.toString();
+    String tomorrowStr = today.plusDays(1).toString();
+    String nextWeekStr = today.plusDays(7).toString();
+    return "You are a task parsing assistant. Parse this natural language into JSON ONLY. " +
+      "Extract: title (MANDATORY - short, clear task title, must always be provided), description (3-5 numbered points like '1. First point\\n2. Second point'), " +
+      "category (Work/Personal/Health/Education/Others), dueDate (YYYY-MM-DD or null), " +
+      "priority (High/Medium/Low), status (always 'Pending'). " +
+      "CRITICAL: You MUST always provide a title field. If unclear, create a reasonable title based on the input. " +
+      "DATE RULES (analyze the text carefully for date mentions): " +
+      "- 'today' or 'today' = " + todayStr + ", " +
+      "- 'tomorrow' or 'tomorrow' = " + tomorrowStr + ", " +
+      "- 'next week' or 'next week' = " + nextWeekStr + ", " +
+      "- 'in X days' = add X days to today, " +
+      "- Specific dates like 'Jan 15', 'January 15', '15th Jan' = calculate the date in YYYY-MM-DD format, " +
+      "- Days like 'Monday', 'Tuesday' = calculate next occurrence of that day, " +
+      "- If no date mentioned, use null. " +
+      "PRIORITY RULES (analyze urgency keywords in the text): " +
+      "- High: urgent, asap, important, critical, emergency, deadline soon, must do, high priority, top priority, immediately, now, today, rush, pressing " +
+      "- Medium: normal, regular, standard, moderate, default (use this if unclear or no urgency mentioned), " +
+      "- Low: low priority, optional, whenever, later, not urgent, can wait, someday, no rush " +
+      "CATEGORY RULES: " +
+      "- Work: work, business, meeting, project, office, job, professional, client, team, deadline, presentation, conference " +
+      "- Personal: personal, family, friends, home, household, shopping, personal care, vacation, trip " +
+      "- Health: health, fitness, doctor, medical, exercise, gym, workout, appointment, checkup, hospital " +
+      "- Education: study, learn, course, class, exam, homework, assignment, school, university, education, research " +
+      "- Others: anything else " +
+      "Return ONLY valid JSON, no other text, no markdown, no explanations. Format: {\"title\":\"Task title\",\"description\":\"1. Point one\\n2. Point two\",\"category\":\"Work\",\"dueDate\":\"" + tomorrowStr + "\",\"priority\":\"Medium\",\"status\":\"Pending\"}. " +
+      "Text: " + text;
+  }
+}
@@ -0,0 +1,62 @@
+package com.taskgenie.benchmark;
+
+import com.taskgenie.util.RateLimiter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+  private static final RateLimiter.Limit LIMIT = new RateLimiter.Limit(1_000_000, 1_000_000);
+
+  private RateLimiter rateLimiter;
+
+  private String[] keys;
+
+  @Setup
+  public void setUp() {
+    rateLimiter = new RateLimiter(64, 100_000, Duration.ofMinutes(10));
+    keys = new String[10_000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = "ai:u:" + UUID.randomUUID();
+      rateLimiter.tryAcquire(keys[i], LIMIT);
+    }
+  }
+
+  @Benchmark
+  public long sameKey() {
+    return rateLimiter.tryAcquire(keys[0], LIMIT);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long manyKeysContended() {
+    return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)], LIMIT);
+  }
+
+  @Benchmark
+  public long keyBuiltPerRequest() {
+    // What the filter does: route prefix plus user id, then the bucket lookup
+    return rateLimiter.tryAcquire("ai:" + "u:" + keys[ThreadLocalRandom.current().nextInt(keys.length)].substring(5), LIMIT);
+  }
+}
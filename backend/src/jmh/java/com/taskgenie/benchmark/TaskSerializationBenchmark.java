@@ -0,0 +1,65 @@
+package com.taskgenie.benchmark;
+
+import com.taskgenie.dto.TaskView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+  private static final String[] CATEGORIES = {"Work", "Personal", "Health", "Education", "Others"};
+
+  private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  // The same mapper the HTTP layer writes responses with
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  private List<TaskView> tasks;
+
+  @Setup
+  public void setUp() {
+    LocalDate today = LocalDate.of(2025, 1, 15);
+    tasks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      tasks.add(new TaskView(
+          UUID.randomUUID(),
+          "Task " + i + ": prepare the weekly report",
+          "1. Collect the numbers\n2. Draft the summary\n3. Review with the team",
+          CATEGORIES[i % CATEGORIES.length],
+          PRIORITIES[i % PRIORITIES.length],
+          i % 4 == 0 ? "Completed" : "Pending",
+          i % 3 == 0 ? null : today.plusDays(i % 30),
+          today.atStartOfDay().minusMinutes(i)));
+    }
+  }
+
+  @Benchmark
+  public byte[] writeTaskList() {
+    return jsonMapper.writeValueAsBytes(tasks);
+  }
+}
@@ -0,0 +1,177 @@
+package com.taskgenie.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures task CRUD latency against a running backend, first idle and then while a slow Groq stub
+ * keeps the AI endpoints saturated. With non-blocking AI endpoints the two CRUD rows should match.
+ *
+ * <p>Start the backend with GROQ_API_URL=http://localhost:18081/openai/v1/chat/completions,
+ * GROQ_API_KEY=stub and RATE_LIMIT_ENABLED=false (otherwise the flood is answered with 429s), for
+ * example on in-memory H2 with mvn -Ph2 spring-boot:run, then run: mvn -Ploadtest compile exec:java
+ *
+ * <p>Clients beyond ai.upstream.max-concurrent plus max-queued are answered 503 and retry every
+ * second. That is real request work, so when the backend shares CPUs with this generator it shows up
+ * in the CRUD tail; set loadtest.ai-concurrency to the two limits combined to measure parked calls only.
+ */
+public class AiSaturationLoadTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final HttpClient httpClient = newHttpClient();
+
+  // Separate client so measured CRUD calls never queue behind flood traffic inside the load generator
+  private final HttpClient floodClient = newHttpClient();
+
+  private final String baseUrl;
+
+  private String token;
+
+  private String userId;
+
+  public AiSaturationLoadTest(String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    int aiConcurrency = Integer.getInteger("loadtest.ai-concurrency", 400);
+    int crudIterations = Integer.getInteger("loadtest.crud-iterations", 200);
+    int warmupIterations = Integer.getInteger("loadtest.warmup-iterations", 100);
+    int stubPort = Integer.getInteger("stub.port", 18081);
+    long stubLatencyMs = Long.getLong("stub.latency-ms", 3000);
+
+    GroqStub stub = new GroqStub(stubPort, stubLatencyMs);
+    stub.start();
+    try {
+      AiSaturationLoadTest test = new AiSaturationLoadTest(baseUrl);
+      test.login();
+      // Unmeasured, so JIT compilation and pool start-up are not charged to the idle row
+      test.runCrud(warmupIterations);
+
+      LatencyStats idle = test.runCrud(crudIterations);
+      System.out.println(idle.summary("task CRUD (idle)"));
+
+      AtomicBoolean running = new AtomicBoolean(true);
+      AtomicLong aiCompleted = new AtomicLong();
+      AtomicLong aiRejected = new AtomicLong();
+      for (int i = 0; i < aiConcurrency; i++) {
+        test.floodAi(running, aiCompleted, aiRejected);
+      }
+      // Let the flood fill the upstream limit and queue before measuring
+      Thread.sleep(stubLatencyMs);
+      LatencyStats saturated = test.runCrud(crudIterations);
+      running.set(false);
+
+      System.out.println(idle.summary("task CRUD (idle)"));
+      System.out.println(saturated.summary("task CRUD (AI flood)"));
+      System.out.println("AI requests completed=" + aiCompleted.get() + " rejected(503)=" + aiRejected.get());
+    } finally {
+      stub.stop();
+    }
+  }
+
+  private void login() throws IOException, InterruptedException {
+    String email = "loadtest-" + UUID.randomUUID() + "@taskgenie.dev";
+    String credentials = "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"loadtest\"}";
+    send(json("/api/users/register", "POST", credentials));
+    JsonNode login = OBJECT_MAPPER.readTree(send(json("/api/users/login", "POST", credentials)).body());
+    token = login.path("token").asText();
+    String payload = new String(
+        java.util.Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+    userId = OBJECT_MAPPER.readTree(payload).path("sub").asText();
+  }
+
+  private LatencyStats runCrud(int iterations) throws IOException, InterruptedException {
+    LatencyStats stats = new LatencyStats();
+    for (int i = 0; i < iterations; i++) {
+      String task = "{\"title\":\"Load test task " + i + "\",\"status\":\"Pending\",\"priority\":\"Medium\"}";
+      long start = System.nanoTime();
+      HttpResponse<String> created = send(json("/api/tasks/", "POST", task));
+      stats.record(System.nanoTime() - start);
+      String taskId = OBJECT_MAPPER.readTree(created.body()).path("id").asText();
+
+      start = System.nanoTime();
+      send(authorized("/api/tasks/").GET().build());
+      stats.record(System.nanoTime() - start);
+
+      start = System.nanoTime();
+      send(json("/api/tasks/" + taskId, "PUT", task.replace("Pending", "Completed")));
+      stats.record(System.nanoTime() - start);
+
+      start = System.nanoTime();
+      send(authorized("/api/tasks/" + taskId).DELETE().build());
+      stats.record(System.nanoTime() - start);
+    }
+    return stats;
+  }
+
+  private void floodAi(AtomicBoolean running, AtomicLong completed, AtomicLong rejected) {
+    if (!running.get()) {
+      return;
+    }
+    // Unique text so neither the response cache nor request coalescing absorbs the load
+    String text = URLEncoder.encode("load test " + UUID.randomUUID(), StandardCharsets.UTF_8);
+    HttpRequest request = authorized("/api/ai/generate-tasks/" + userId + "?text=" + text)
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .timeout(Duration.ofSeconds(60))
+        .build();
+    floodClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+      if (response != null && response.statusCode() == 503) {
+        // Back off like a real client instead of turning rejections into a CPU-bound retry loop
+        rejected.incrementAndGet();
+        CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS).execute(() -> floodAi(running, completed, rejected));
+        return;
+      }
+      if (response != null) {
+        completed.incrementAndGet();
+      }
+      floodAi(running, completed, rejected);
+    });
+  }
+
+  private static HttpClient newHttpClient() {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+  }
+
+  private HttpRequest json(String path, String method, String body) {
+    return authorized(path)
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private HttpRequest.Builder authorized(String path) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder;
+  }
+
+  private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+    }
+    return response;
+  }
+}
@@ -0,0 +1,194 @@
+package com.taskgenie.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Groq chat-completions API. Each request waits the configured latency plus
+ * up to {@code jitterMs}, then fails with 500 or 429 at the configured rates or answers like Groq:
+ * a JSON completion, or for {@code "stream": true} an event stream of {@code streamChunks} deltas
+ * spaced {@code chunkDelayMs} apart and ended by {@code [DONE]}.
+ *
+ * <p>Point the backend at it with GROQ_API_URL=http://localhost:{port}/openai/v1/chat/completions
+ * and GROQ_API_KEY=stub. Run standalone with mvn -Ploadtest compile exec:java
+ * -Dloadtest.main=com.taskgenie.loadtest.GroqStub and the stub.* properties read by
+ * {@link Behavior#fromSystemProperties()}.
+ */
+public class GroqStub {
+
+  static final String COMPLETIONS_PATH = "/openai/v1/chat/completions";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final String MODEL = "llama-3.1-8b-instant";
+
+  private static final String[] WORDS = {
+      "1.", "Outline", "the", "goal", "and", "deadline.", "\n2.", "Break", "it", "into", "small", "steps.",
+      "\n3.", "Schedule", "time", "for", "each", "step.", "\n4.", "Review", "progress", "daily."};
+
+  /** How the stub answers. Rates are fractions of all requests, drawn independently per request. */
+  public record Behavior(
+      long latencyMs,
+      long jitterMs,
+      double errorRate,
+      double rateLimitRate,
+      int streamChunks,
+      long chunkDelayMs) {
+
+    public static Behavior fromSystemProperties() {
+      return new Behavior(
+          Long.getLong("stub.latency-ms", 3000),
+          Long.getLong("stub.jitter-ms", 0),
+          Double.parseDouble(System.getProperty("stub.error-rate", "0")),
+          Double.parseDouble(System.getProperty("stub.rate-limit-rate", "0")),
+          Integer.getInteger("stub.stream-chunks", 20),
+          Long.getLong("stub.chunk-delay-ms", 20));
+    }
+  }
+
+  private final HttpServer server;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final Behavior behavior;
+
+  private final AtomicLong completions = new AtomicLong();
+
+  private final AtomicLong streams = new AtomicLong();
+
+  private final AtomicLong errors = new AtomicLong();
+
+  private final AtomicLong rateLimited = new AtomicLong();
+
+  public GroqStub(int port, long latencyMs) throws IOException {
+    this(port, new Behavior(latencyMs, 0, 0, 0, 20, 20));
+  }
+
+  public GroqStub(int port, Behavior behavior) throws IOException {
+    this.behavior = behavior;
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+    this.server.createContext(COMPLETIONS_PATH, this::handle);
+    this.server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  public String summary() {
+    return "Groq stub completions=" + completions.get() + " streams=" + streams.get()
+        + " errors(500)=" + errors.get() + " rateLimited(429)=" + rateLimited.get();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    boolean stream = OBJECT_MAPPER.readTree(exchange.getRequestBody()).path("stream").asBoolean(false);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    sleep(behavior.latencyMs() + (behavior.jitterMs() > 0 ? random.nextLong(behavior.jitterMs() + 1) : 0));
+
+    double roll = random.nextDouble();
+    if (roll < behavior.errorRate()) {
+      errors.incrementAndGet();
+      respond(exchange, 500, "{\"error\":{\"message\":\"stub internal error\",\"type\":\"internal_server_error\"}}");
+    } else if (roll < behavior.errorRate() + behavior.rateLimitRate()) {
+      rateLimited.incrementAndGet();
+      exchange.getResponseHeaders().set("Retry-After", "1");
+      respond(exchange, 429, "{\"error\":{\"message\":\"stub rate limit\",\"type\":\"tokens\"}}");
+    } else if (stream) {
+      streams.incrementAndGet();
+      stream(exchange);
+    } else {
+      completions.incrementAndGet();
+      respond(exchange, 200, completion());
+    }
+  }
+
+  private void stream(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream out = exchange.getResponseBody()) {
+      for (int i = 0; i < behavior.streamChunks(); i++) {
+        if (i > 0) {
+          sleep(behavior.chunkDelayMs());
+        }
+        String word = WORDS[i % WORDS.length];
+        writeEvent(out, chunk(i == 0 ? word : " " + word));
+      }
+      writeEvent(out, "[DONE]");
+    } catch (IOException ex) {
+      // The backend cancelled the stream
+    }
+  }
+
+  private static void writeEvent(OutputStream out, String data) throws IOException {
+    out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static String completion() {
+    ObjectNode body = envelope("chat.completion");
+    ObjectNode choice = body.putArray("choices").addObject();
+    choice.put("index", 0);
+    choice.putObject("message").put("role", "assistant").put("content", String.join(" ", WORDS));
+    choice.put("finish_reason", "stop");
+    body.putObject("usage").put("prompt_tokens", 400).put("completion_tokens", WORDS.length).put("total_tokens", 400 + WORDS.length);
+    return body.toString();
+  }
+
+  private static String chunk(String content) {
+    ObjectNode body = envelope("chat.completion.chunk");
+    ObjectNode choice = body.putArray("choices").addObject();
+    choice.put("index", 0);
+    choice.putObject("delta").put("content", content);
+    choice.putNull("finish_reason");
+    return body.toString();
+  }
+
+  private static ObjectNode envelope(String object) {
+    ObjectNode body = OBJECT_MAPPER.createObjectNode();
+    body.put("id", "chatcmpl-stub");
+    body.put("object", object);
+    body.put("created", System.currentTimeMillis() / 1000);
+    body.put("model", MODEL);
+    return body;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = Integer.getInteger("stub.port", 18081);
+    Behavior behavior = Behavior.fromSystemProperties();
+    new GroqStub(port, behavior).start();
+    System.out.println("Groq stub listening on http://localhost:" + port + COMPLETIONS_PATH + " with " + behavior);
+  }
+}
@@ -0,0 +1,36 @@
+package com.taskgenie.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Collects request latencies in microseconds and reports percentiles. */
+public class LatencyStats {
+
+  private final List<Long> samplesMicros = new ArrayList<>();
+
+  public synchronized void record(long nanos) {
+    samplesMicros.add(nanos / 1000);
+  }
+
+  public synchronized int count() {
+    return samplesMicros.size();
+  }
+
+  public synchronized long percentileMicros(double percentile) {
+    if (samplesMicros.isEmpty()) {
+      return 0;
+    }
+    List<Long> sorted = new ArrayList<>(samplesMicros);
+    Collections.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+    return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+  }
+
+  public String summary(String label) {
+    return String.format("%-22s n=%-6d p50=%8.2f ms  p95=%8.2f ms  p99=%8.2f ms  max=%8.2f ms",
+        label, count(),
+        percentileMicros(50) / 1000.0, percentileMicros(95) / 1000.0,
+        percentileMicros(99) / 1000.0, percentileMicros(100) / 1000.0);
+  }
+}
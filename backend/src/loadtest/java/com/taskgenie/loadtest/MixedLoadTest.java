@@ -0,0 +1,376 @@
+package com.taskgenie.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Drives a weighted mix of task CRUD, login and AI calls against a running backend from a fixed
+ * number of virtual users, each looping back to back as its own registered user, and reports
+ * throughput and latency percentiles per operation. AI calls go to an embedded {@link GroqStub}
+ * unless stub.enabled=false, so nothing leaves the machine.
+ *
+ * <p>Start the backend with GROQ_API_URL=http://localhost:18081/openai/v1/chat/completions,
+ * GROQ_API_KEY=stub and, unless the limits themselves are under test, --rate-limit.enabled=false
+ * (every virtual user shares one IP). Then run:
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.taskgenie.loadtest.MixedLoadTest
+ *
+ * <p>Settings: loadtest.base-url, loadtest.users, loadtest.warmup-s, loadtest.duration-s,
+ * loadtest.think-ms, loadtest.mix (name=weight pairs over the operations below), loadtest.report
+ * (optional JSON output file) and the stub.* properties of {@link GroqStub.Behavior}.
+ */
+public class MixedLoadTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final String DEFAULT_MIX =
+      "list=35,create=15,update=10,delete=10,login=5,ai=15,ai-stream=10";
+
+  private static final String PASSWORD = "loadtest";
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
+  private final String baseUrl;
+
+  private final Map<String, Integer> mix;
+
+  private final int totalWeight;
+
+  private final long thinkMs;
+
+  private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+
+  private volatile boolean measuring;
+
+  public MixedLoadTest(String baseUrl, Map<String, Integer> mix, long thinkMs) {
+    this.baseUrl = baseUrl;
+    this.mix = mix;
+    this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    this.thinkMs = thinkMs;
+    for (String operation : mix.keySet()) {
+      stats.put(operation, new OperationStats());
+    }
+    if (mix.containsKey("ai-stream")) {
+      stats.put("ai-stream first event", new OperationStats());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    int users = Integer.getInteger("loadtest.users", 20);
+    long warmupSeconds = Long.getLong("loadtest.warmup-s", 10);
+    long durationSeconds = Long.getLong("loadtest.duration-s", 60);
+    long thinkMs = Long.getLong("loadtest.think-ms", 0);
+    Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+    String report = System.getProperty("loadtest.report");
+
+    GroqStub stub = null;
+    if (Boolean.parseBoolean(System.getProperty("stub.enabled", "true"))) {
+      GroqStub.Behavior behavior = GroqStub.Behavior.fromSystemProperties();
+      stub = new GroqStub(Integer.getInteger("stub.port", 18081), behavior);
+      stub.start();
+      System.out.println("Groq stub: " + behavior);
+    }
+    try {
+      MixedLoadTest test = new MixedLoadTest(baseUrl, mix, thinkMs);
+      ObjectNode result = test.run(users, warmupSeconds, durationSeconds);
+      if (stub != null) {
+        System.out.println(stub.summary());
+      }
+      if (report != null) {
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(report), result);
+        System.out.println("Report written to " + report);
+      }
+    } finally {
+      if (stub != null) {
+        stub.stop();
+      }
+    }
+  }
+
+  public ObjectNode run(int users, long warmupSeconds, long durationSeconds) throws Exception {
+    List<VirtualUser> virtualUsers = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      virtualUsers.add(register());
+    }
+    System.out.println("Registered " + users + " users; warming up for " + warmupSeconds + " s, then measuring for "
+        + durationSeconds + " s with mix " + mix);
+
+    long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+    long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+    ExecutorService executor = Executors.newFixedThreadPool(users);
+    for (VirtualUser user : virtualUsers) {
+      executor.execute(() -> loop(user, end));
+    }
+    TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+    measuring = true;
+    long start = System.nanoTime();
+    executor.shutdown();
+    executor.awaitTermination(durationSeconds + 120, TimeUnit.SECONDS);
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+    return report(users, elapsedSeconds);
+  }
+
+  private void loop(VirtualUser user, long end) {
+    while (System.nanoTime() < end) {
+      String operation = pick();
+      OperationStats operationStats = stats.get(operation);
+      long start = System.nanoTime();
+      int status;
+      try {
+        status = execute(user, operation);
+      } catch (IOException ex) {
+        status = -1;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (measuring) {
+        operationStats.record(System.nanoTime() - start, status);
+      }
+      if (thinkMs > 0) {
+        try {
+          Thread.sleep(thinkMs);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private String pick() {
+    int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+      roll -= entry.getValue();
+      if (roll < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Empty mix");
+  }
+
+  // Returns the HTTP status, so rate limiting and failures are told apart in the report
+  private int execute(VirtualUser user, String operation) throws IOException, InterruptedException {
+    return switch (operation) {
+      case "list" -> send(user.authorized("/api/tasks/").GET().build()).statusCode();
+      case "create" -> createTask(user);
+      case "update" -> {
+        String taskId = user.taskIds.peekLast();
+        yield taskId == null
+            ? createTask(user)
+            : send(user.json("/api/tasks/" + taskId, "PUT", taskJson("Completed"))).statusCode();
+      }
+      case "delete" -> {
+        String taskId = user.taskIds.pollFirst();
+        yield taskId == null ? createTask(user) : send(user.authorized("/api/tasks/" + taskId).DELETE().build()).statusCode();
+      }
+      case "login" -> login(user);
+      case "ai" -> send(user.authorized("/api/ai/generate-description/" + user.userId + "?title=" + uniqueText())
+          .POST(HttpRequest.BodyPublishers.noBody())
+          .timeout(Duration.ofSeconds(60))
+          .build()).statusCode();
+      case "ai-stream" -> stream(user);
+      default -> throw new IllegalArgumentException("Unknown operation " + operation);
+    };
+  }
+
+  private int createTask(VirtualUser user) throws IOException, InterruptedException {
+    HttpResponse<String> response = send(user.json("/api/tasks/", "POST", taskJson("Pending")));
+    if (response.statusCode() == 200) {
+      user.taskIds.addLast(OBJECT_MAPPER.readTree(response.body()).path("id").asText());
+    }
+    return response.statusCode();
+  }
+
+  private int login(VirtualUser user) throws IOException, InterruptedException {
+    HttpResponse<String> response = send(new VirtualUser(null, null, user.email)
+        .json("/api/users/login", "POST", credentials(user.email)));
+    if (response.statusCode() == 200) {
+      user.token = OBJECT_MAPPER.readTree(response.body()).path("token").asText();
+    }
+    return response.statusCode();
+  }
+
+  // The full stream is the operation; time to the first event is reported on its own row
+  private int stream(VirtualUser user) throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    HttpRequest request = user.authorized("/api/ai/generate-tasks/" + user.userId + "/stream?text=" + uniqueText())
+        .header("Accept", "text/event-stream")
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .timeout(Duration.ofSeconds(60))
+        .build();
+    HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+    boolean first = true;
+    try (Stream<String> lines = response.body()) {
+      for (String line : (Iterable<String>) lines::iterator) {
+        if (first && line.startsWith("data:")) {
+          first = false;
+          if (measuring) {
+            stats.get("ai-stream first event").record(System.nanoTime() - start, response.statusCode());
+          }
+        }
+      }
+    }
+    return response.statusCode();
+  }
+
+  private VirtualUser register() throws IOException, InterruptedException {
+    String email = "loadtest-" + UUID.randomUUID() + "@taskgenie.dev";
+    VirtualUser anonymous = new VirtualUser(null, null, email);
+    HttpResponse<String> registered = send(anonymous.json("/api/users/register", "POST", credentials(email)));
+    HttpResponse<String> loggedIn = send(anonymous.json("/api/users/login", "POST", credentials(email)));
+    if (registered.statusCode() != 200 || loggedIn.statusCode() != 200) {
+      throw new IOException("Could not register " + email + ": " + registered.statusCode() + "/" + loggedIn.statusCode());
+    }
+    String token = OBJECT_MAPPER.readTree(loggedIn.body()).path("token").asText();
+    String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+    return new VirtualUser(token, OBJECT_MAPPER.readTree(payload).path("sub").asText(), email);
+  }
+
+  private ObjectNode report(int users, double elapsedSeconds) {
+    ObjectNode result = OBJECT_MAPPER.createObjectNode();
+    result.put("users", users);
+    result.put("durationSeconds", elapsedSeconds);
+    ArrayNode operations = result.putArray("operations");
+    long total = 0;
+    System.out.println();
+    for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+      OperationStats operationStats = entry.getValue();
+      LatencyStats latency = operationStats.latency;
+      double throughput = latency.count() / elapsedSeconds;
+      System.out.printf("%s  %8.1f req/s  errors=%-5d limited=%d%n",
+          latency.summary(entry.getKey()), throughput, operationStats.errors.get(), operationStats.limited.get());
+      if (!entry.getKey().endsWith("first event")) {
+        total += latency.count();
+      }
+      ObjectNode operation = operations.addObject();
+      operation.put("name", entry.getKey());
+      operation.put("count", latency.count());
+      operation.put("throughputPerSecond", throughput);
+      operation.put("errors", operationStats.errors.get());
+      operation.put("limited", operationStats.limited.get());
+      operation.put("p50Ms", latency.percentileMicros(50) / 1000.0);
+      operation.put("p95Ms", latency.percentileMicros(95) / 1000.0);
+      operation.put("p99Ms", latency.percentileMicros(99) / 1000.0);
+      operation.put("maxMs", latency.percentileMicros(100) / 1000.0);
+    }
+    System.out.printf("total  %d successful requests  %.1f req/s over %.1f s with %d users%n",
+        total, total / elapsedSeconds, elapsedSeconds, users);
+    result.put("totalRequests", total);
+    result.put("totalThroughputPerSecond", total / elapsedSeconds);
+    return result;
+  }
+
+  private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String pair : mix.split(",")) {
+      String[] parts = pair.trim().split("=");
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(parts[0].trim(), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("loadtest.mix has no positive weights: " + mix);
+    }
+    return weights;
+  }
+
+  private static String credentials(String email) {
+    return "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+  }
+
+  private static String taskJson(String status) {
+    return "{\"title\":\"Load test task\",\"description\":\"1. Measure\\n2. Compare\",\"category\":\"Work\","
+        + "\"priority\":\"Medium\",\"status\":\"" + status + "\"}";
+  }
+
+  // Unique text so neither the response cache nor request coalescing absorbs the load
+  private static String uniqueText() {
+    return URLEncoder.encode("load test " + UUID.randomUUID(), StandardCharsets.UTF_8);
+  }
+
+  private final class VirtualUser {
+
+    private final String userId;
+
+    private final String email;
+
+    private final Deque<String> taskIds = new ArrayDeque<>();
+
+    private volatile String token;
+
+    VirtualUser(String token, String userId, String email) {
+      this.token = token;
+      this.userId = userId;
+      this.email = email;
+    }
+
+    HttpRequest json(String path, String method, String body) {
+      return authorized(path)
+          .header("Content-Type", "application/json")
+          .method(method, HttpRequest.BodyPublishers.ofString(body))
+          .build();
+    }
+
+    HttpRequest.Builder authorized(String path) {
+      HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+      if (token != null) {
+        builder.header("Authorization", "Bearer " + token);
+      }
+      return builder;
+    }
+  }
+
+  private static final class OperationStats {
+
+    private final LatencyStats latency = new LatencyStats();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong limited = new AtomicLong();
+
+    // Only successes feed the percentiles; a fast 429 or 500 would flatter them
+    void record(long nanos, int status) {
+      if (status == 429) {
+        limited.incrementAndGet();
+      } else if (status < 200 || status >= 400) {
+        errors.incrementAndGet();
+      } else {
+        latency.record(nanos);
+      }
+    }
+  }
+}
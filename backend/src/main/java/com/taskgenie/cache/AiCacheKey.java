@@ -0,0 +1,19 @@
+package com.taskgenie.cache;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Cache key for an AI completion: the model plus the prompt after Unicode (NFC) and whitespace
+ * normalization, so prompts that differ only in spacing or line breaks share one entry.
+ */
+public record AiCacheKey(String model, String prompt) {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  public static AiCacheKey of(String model, String prompt) {
+    String normalized = Normalizer.normalize(prompt == null ? "" : prompt, Normalizer.Form.NFC);
+    normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ");
+    return new AiCacheKey(model, normalized);
+  }
+}
@@ -0,0 +1,15 @@
+package com.taskgenie.cache;
+
+/**
+ * Stores successful AI completions. The default implementation is {@link LruTtlAiResponseCache};
+ * register another implementation as a {@code @Primary} bean to plug in a different store.
+ */
+public interface AiResponseCache {
+
+  /** Returns the cached completion, or {@code null} on a miss. */
+  String get(AiCacheKey key);
+
+  void put(AiCacheKey key, String response);
+
+  CacheStats stats();
+}
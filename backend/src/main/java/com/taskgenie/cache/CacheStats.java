@@ -0,0 +1,13 @@
+package com.taskgenie.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Point-in-time counters for a cache. Evictions are capacity removals; expirations are TTL removals. */
+public record CacheStats(long hits, long misses, long evictions, long expirations, int size, int maxSize) {
+
+  @JsonProperty
+  public double hitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+}
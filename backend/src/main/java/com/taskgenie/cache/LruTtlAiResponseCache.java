@@ -0,0 +1,77 @@
+package com.taskgenie.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Size-bounded, access-ordered cache whose entries also expire a fixed time after they are written. */
+@Component
+public class LruTtlAiResponseCache implements AiResponseCache {
+
+  private final int maxEntries;
+
+  private final long ttlNanos;
+
+  private final LinkedHashMap<AiCacheKey, Entry> entries;
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  private long expirations;
+
+  public LruTtlAiResponseCache(
+      @Value("${ai.cache.max-entries:1000}") int maxEntries,
+      @Value("${ai.cache.ttl-ms:3600000}") long ttlMs) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<AiCacheKey, Entry> eldest) {
+        if (size() > LruTtlAiResponseCache.this.maxEntries) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  @Override
+  public synchronized String get(AiCacheKey key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (System.nanoTime() - entry.expiresAt() > 0) {
+      entries.remove(key);
+      expirations++;
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.response();
+  }
+
+  @Override
+  public synchronized void put(AiCacheKey key, String response) {
+    if (maxEntries <= 0) {
+      return;
+    }
+    entries.put(key, new Entry(response, System.nanoTime() + ttlNanos));
+  }
+
+  @Override
+  public synchronized CacheStats stats() {
+    return new CacheStats(hits, misses, evictions, expirations, entries.size(), maxEntries);
+  }
+
+  private record Entry(String response, long expiresAt) {
+  }
+}
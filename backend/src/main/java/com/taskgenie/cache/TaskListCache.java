@@ -0,0 +1,149 @@
+package com.taskgenie.cache;
+
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.service.TaskChangeListener;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-user version of the task list, bumped on every task write, plus the list serialized at that
+ * version. The version is the ETag, so If-None-Match is answered from memory. Versions come from one
+ * counter and the ETag carries a random per-instance epoch, so a tag is never reused for another list,
+ * even after an entry is evicted or the server restarts. Writes made by another instance are not seen;
+ * the TTL bounds how long a stale list can be served.
+ */
+@Component
+public class TaskListCache implements TaskChangeListener {
+
+  /** A serialized task list and the ETag it is served with. */
+  public record Payload(String etag, byte[] json) {
+  }
+
+  private final JsonMapper jsonMapper;
+
+  private final int maxEntries;
+
+  private final long ttlNanos;
+
+  private final String epoch = Integer.toHexString(ThreadLocalRandom.current().nextInt());
+
+  private final LinkedHashMap<UUID, Entry> byUser;
+
+  private long lastVersion;
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  private long expirations;
+
+  public TaskListCache(
+      JsonMapper jsonMapper,
+      @Value("${task.list-cache.max-entries:1000}") int maxEntries,
+      @Value("${task.list-cache.ttl-ms:60000}") long ttlMs) {
+    this.jsonMapper = jsonMapper;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.byUser = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+        if (size() > TaskListCache.this.maxEntries) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /** The ETag of the user's current task list. */
+  public synchronized String etag(UUID userId) {
+    return etag(current(userId).version());
+  }
+
+  /**
+   * The user's task list as JSON, loaded and serialized on a miss. A write that lands while the list
+   * is loading bumps the version, so the loaded list is returned but not kept.
+   */
+  public Payload get(UUID userId, Supplier<List<TaskView>> loader) {
+    long version;
+    synchronized (this) {
+      Entry entry = current(userId);
+      if (entry.payload() != null) {
+        hits++;
+        return entry.payload();
+      }
+      misses++;
+      version = entry.version();
+    }
+    Payload payload = new Payload(etag(version), jsonMapper.writeValueAsBytes(loader.get()));
+    synchronized (this) {
+      Entry entry = byUser.get(userId);
+      if (entry != null && entry.version() == version) {
+        byUser.put(userId, new Entry(version, payload, entry.expiresAt()));
+      }
+    }
+    return payload;
+  }
+
+  @Override
+  public void taskSaved(UUID userId, TaskView task) {
+    changed(userId);
+  }
+
+  @Override
+  public void taskDeleted(UUID userId, UUID taskId) {
+    changed(userId);
+  }
+
+  public synchronized CacheStats stats() {
+    return new CacheStats(hits, misses, evictions, expirations, byUser.size(), maxEntries);
+  }
+
+  // Without an entry there is nothing to bump: the next read starts from a version never handed out
+  private synchronized void changed(UUID userId) {
+    if (byUser.containsKey(userId)) {
+      byUser.put(userId, newEntry());
+    }
+  }
+
+  private Entry current(UUID userId) {
+    Entry entry = byUser.get(userId);
+    if (entry != null && System.nanoTime() - entry.expiresAt() > 0) {
+      byUser.remove(userId);
+      expirations++;
+      entry = null;
+    }
+    if (entry == null) {
+      entry = newEntry();
+      if (maxEntries > 0) {
+        byUser.put(userId, entry);
+      }
+    }
+    return entry;
+  }
+
+  private Entry newEntry() {
+    return new Entry(++lastVersion, null, System.nanoTime() + ttlNanos);
+  }
+
+  // Weak, because two loads of the same version may list the tasks in a different order
+  private String etag(long version) {
+    return "W/\"" + epoch + "-" + version + "\"";
+  }
+
+  private record Entry(long version, Payload payload, long expiresAt) {
+  }
+}
@@ -0,0 +1,144 @@
+package com.taskgenie.cache;
+
+import com.taskgenie.model.User;
+import com.taskgenie.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded, access-ordered cache of users by id, with a secondary index by email, loaded from
+ * {@link UserRepository} on a miss. It holds immutable snapshots rather than entities, so nothing
+ * cached is attached to a persistence context. Code that saves a user must call {@link #put} or
+ * {@link #invalidate}; the TTL bounds staleness from changes made outside this instance.
+ */
+@Component
+public class UserCache {
+
+  /** The fields callers need without loading the entity. */
+  public record CachedUser(UUID id, String email, String passwordHash) {
+
+    static CachedUser of(User user) {
+      return new CachedUser(user.getId(), user.getEmail(), user.getPassword());
+    }
+  }
+
+  private final UserRepository userRepository;
+
+  private final int maxEntries;
+
+  private final long ttlNanos;
+
+  private final LinkedHashMap<UUID, Entry> byId;
+
+  private final Map<String, UUID> idsByEmail = new HashMap<>();
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  private long expirations;
+
+  public UserCache(
+      UserRepository userRepository,
+      @Value("${user.cache.max-entries:10000}") int maxEntries,
+      @Value("${user.cache.ttl-ms:600000}") long ttlMs) {
+    this.userRepository = userRepository;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+        if (size() > UserCache.this.maxEntries) {
+          idsByEmail.remove(eldest.getValue().user().email());
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /** Whether the user exists; answered from the cache when possible. */
+  public boolean exists(UUID id) {
+    return findById(id).isPresent();
+  }
+
+  public Optional<CachedUser> findById(UUID id) {
+    CachedUser cached = lookup(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    // Loaded outside the lock; two racing misses both query and store the same row
+    return userRepository.findById(id).map(this::put);
+  }
+
+  public Optional<CachedUser> findByEmail(String email) {
+    CachedUser cached;
+    synchronized (this) {
+      UUID id = idsByEmail.get(email);
+      cached = id == null ? null : lookup(id);
+      if (id == null) {
+        misses++;
+      }
+    }
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    return userRepository.findByEmail(email).map(this::put);
+  }
+
+  /** Stores the saved user, replacing any older snapshot. */
+  public synchronized CachedUser put(User user) {
+    CachedUser cached = CachedUser.of(user);
+    if (maxEntries <= 0) {
+      return cached;
+    }
+    Entry previous = byId.put(cached.id(), new Entry(cached, System.nanoTime() + ttlNanos));
+    if (previous != null && !Objects.equals(previous.user().email(), cached.email())) {
+      idsByEmail.remove(previous.user().email());
+    }
+    idsByEmail.put(cached.email(), cached.id());
+    return cached;
+  }
+
+  public synchronized void invalidate(UUID id) {
+    Entry removed = byId.remove(id);
+    if (removed != null) {
+      idsByEmail.remove(removed.user().email());
+    }
+  }
+
+  public synchronized CacheStats stats() {
+    return new CacheStats(hits, misses, evictions, expirations, byId.size(), maxEntries);
+  }
+
+  private synchronized CachedUser lookup(UUID id) {
+    Entry entry = byId.get(id);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (System.nanoTime() - entry.expiresAt() > 0) {
+      invalidate(id);
+      expirations++;
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.user();
+  }
+
+  private record Entry(CachedUser user, long expiresAt) {
+  }
+}
@@ -0,0 +1,78 @@
+package com.taskgenie.config;
+
+import com.taskgenie.service.AiProvider;
+import com.taskgenie.service.AiRouter;
+import com.taskgenie.util.RetryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class AiProviderConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(AiProviderConfig.class);
+
+  // Every name in ai.providers is read from ai.provider.<name>.url, .api-key and .model
+  @Bean
+  public AiRouter aiRouter(
+      WebClient webClient,
+      MeterRegistry meterRegistry,
+      Environment environment,
+      @Value("${ai.providers:groq}") String[] providerNames,
+      @Value("${ai.retry.max-attempts:3}") int maxAttempts,
+      @Value("${ai.retry.min-backoff-ms:200}") long minBackoffMs,
+      @Value("${ai.retry.max-backoff-ms:2000}") long maxBackoffMs,
+      @Value("${ai.retry.budget-ratio:0.1}") double retryBudgetRatio,
+      @Value("${ai.retry.budget-min-per-second:1}") double retryBudgetMinPerSecond,
+      @Value("${ai.circuit.failure-threshold:5}") int breakerFailureThreshold,
+      @Value("${ai.circuit.open-ms:30000}") long breakerOpenMs,
+      @Value("${ai.routing.window-size:100}") int windowSize,
+      @Value("${ai.routing.min-samples:10}") int minSamples,
+      @Value("${ai.routing.explore-ratio:0.05}") double exploreRatio,
+      @Value("${ai.hedge.enabled:false}") boolean hedgeEnabled,
+      @Value("${ai.hedge.min-delay-ms:100}") long hedgeMinDelayMs,
+      @Value("${ai.hedge.budget-ratio:0.1}") double hedgeBudgetRatio,
+      @Value("${ai.hedge.budget-min-per-second:1}") double hedgeBudgetMinPerSecond) {
+    List<AiProvider> providers = new ArrayList<>();
+    for (String name : providerNames) {
+      String prefix = "ai.provider." + name.trim() + ".";
+      AiProvider provider = new AiProvider(
+          name.trim(),
+          environment.getProperty(prefix + "model", "llama-3.1-8b-instant"),
+          webClient,
+          environment.getRequiredProperty(prefix + "url"),
+          environment.getProperty(prefix + "api-key"),
+          maxAttempts,
+          Duration.ofMillis(minBackoffMs),
+          Duration.ofMillis(maxBackoffMs),
+          new RetryBudget(retryBudgetRatio, retryBudgetMinPerSecond),
+          breakerFailureThreshold,
+          Duration.ofMillis(breakerOpenMs),
+          windowSize,
+          meterRegistry);
+      if (provider.isConfigured()) {
+        providers.add(provider);
+      }
+    }
+    if (providers.isEmpty()) {
+      logger.error("No AI provider has an API key; AI endpoints will answer with a configuration error.");
+    }
+    return new AiRouter(
+        providers,
+        minSamples,
+        exploreRatio,
+        hedgeEnabled,
+        Duration.ofMillis(hedgeMinDelayMs),
+        new RetryBudget(hedgeBudgetRatio, hedgeBudgetMinPerSecond));
+  }
+}
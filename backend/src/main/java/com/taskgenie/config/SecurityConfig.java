@@ -1,6 +1,7 @@
 package com.taskgenie.config;
 
 import com.taskgenie.filter.JwtFilter;
+import com.taskgenie.filter.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +15,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.Arrays;
@@ -25,6 +27,8 @@ public class SecurityConfig {
 
   private final JwtFilter jwtFilter;
 
+  private final RateLimitFilter rateLimitFilter;
+
   @Value("${spring.web.cors.allowed-origins:*}")
   private String allowedOrigins;
 
@@ -34,8 +38,9 @@ public class SecurityConfig {
   @Value("${spring.web.cors.allowed-headers:*}")
   private String allowedHeaders;
 
-  public SecurityConfig(JwtFilter jwtFilter) {
+  public SecurityConfig(JwtFilter jwtFilter, RateLimitFilter rateLimitFilter) {
     this.jwtFilter = jwtFilter;
+    this.rateLimitFilter = rateLimitFilter;
   }
 
   @Bean
@@ -45,21 +50,40 @@ public class SecurityConfig {
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .sessionManagement(session -> session.sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
+            // Async and error dispatches finish requests that were already authorized; without this,
+            // Mono results and error statuses (such as a 503 from the AI limiter) come back as 403
+            .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR)
+            .permitAll()
             .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**")
             .permitAll()
             .requestMatchers("/api/users/register", "/api/users/login")
             .permitAll()
             .requestMatchers("/h2-console/**")
             .permitAll()
+            .requestMatchers("/actuator/health")
+            .permitAll()
+            // Internal queue, cache, circuit and limiter state is for operators only; that includes
+            // /actuator/prometheus, which carries the same numbers as /actuator/metrics
+            .requestMatchers("/api/stats", "/api/stats/**", "/actuator/**")
+            .hasRole(JwtFilter.OPERATOR_ROLE)
+            // These read the logged-in user's logs; only the legacy /api/ai/logs/{userId} stays open
+            .requestMatchers("/api/ai/logs", "/api/ai/logs/export", "/api/ai/logs/archives", "/api/ai/logs/archives/**")
+            .authenticated()
             .requestMatchers("/api/ai/generate-description/**", "/api/ai/generate-tasks/**", "/api/ai/summary/**", "/api/ai/logs/**")
             .permitAll()
             .requestMatchers("/api/ai/parse-task")
             .authenticated()
             .anyRequest()
             .authenticated())
+        // Without a login form or basic auth Spring answers anonymous calls with 403; 401 tells the
+        // client to log in again
+        .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(
+            (request, response, ex) -> response.sendError(HttpServletResponse.SC_UNAUTHORIZED)))
         .addFilterBefore(
             jwtFilter,
-            org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
+            org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
+        // After the JWT filter so limits can be keyed by user
+        .addFilterAfter(rateLimitFilter, JwtFilter.class);
 
     // For H2 console if used
     http.headers(headers -> headers.frameOptions(frame -> frame.disable()));
@@ -87,9 +111,11 @@ public class SecurityConfig {
     configuration.addAllowedHeader("Access-Control-Request-Method");
     configuration.addAllowedHeader("Access-Control-Request-Headers");
     configuration.addAllowedHeader("X-CSRF-TOKEN");
+    configuration.addAllowedHeader("X-Request-Id");
+    configuration.addAllowedHeader("If-None-Match");
     
     // Expose headers
-    configuration.setExposedHeaders(List.of("Authorization", "Content-Type"));
+    configuration.setExposedHeaders(List.of("Authorization", "Content-Type", "X-Parse-Source", "Retry-After", "X-Request-Id", "ETag"));
     configuration.setMaxAge(3600L);
     
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
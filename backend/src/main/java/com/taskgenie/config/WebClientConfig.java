@@ -1,16 +1,60 @@
 package com.taskgenie.config;
 
+import com.taskgenie.util.ConnectionPoolStats;
+
+import io.netty.channel.ChannelOption;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class WebClientConfig {
 
   @Bean
-  public WebClient webClient() {
-    return WebClient.builder().build();
+  public ConnectionPoolStats aiConnectionPoolStats() {
+    return new ConnectionPoolStats();
   }
-}
-
 
+  // Dedicated pool for the AI provider: bounded, idle connections evicted, and no call can hang forever
+  @Bean
+  public WebClient webClient(
+      ConnectionPoolStats aiConnectionPoolStats,
+      @Value("${ai.http.max-connections:64}") int maxConnections,
+      @Value("${ai.http.pending-acquire-max:256}") int pendingAcquireMax,
+      @Value("${ai.http.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+      @Value("${ai.http.max-idle-ms:30000}") long maxIdleMs,
+      @Value("${ai.http.max-life-ms:300000}") long maxLifeMs,
+      @Value("${ai.http.evict-interval-ms:30000}") long evictIntervalMs,
+      @Value("${ai.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+      @Value("${ai.http.response-timeout-ms:60000}") long responseTimeoutMs,
+      @Value("${ai.http.http2:true}") boolean http2) {
+    ConnectionProvider pool = ConnectionProvider.builder("ai-http")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(pendingAcquireMax)
+        .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+        .maxIdleTime(Duration.ofMillis(maxIdleMs))
+        .maxLifeTime(Duration.ofMillis(maxLifeMs))
+        .evictInBackground(Duration.ofMillis(evictIntervalMs))
+        .metrics(true, () -> aiConnectionPoolStats)
+        .build();
+    HttpClient httpClient = HttpClient.create(pool)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        // Maximum gap between reads, so a long stream is fine but a stalled one is cut off
+        .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+    if (http2) {
+      // HTTP/2 is negotiated over TLS; plain http URLs such as a local stub stay on HTTP/1.1
+      httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+    return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+}
@@ -1,8 +1,26 @@
 package com.taskgenie.controller;
 
-import com.taskgenie.model.AiLog;
+import com.taskgenie.dto.AiLogArchiveSummary;
+import com.taskgenie.dto.AiLogPage;
+import com.taskgenie.dto.AiLogView;
+import com.taskgenie.dto.ParsedTask;
+import com.taskgenie.prompt.PromptTemplate;
+import com.taskgenie.prompt.PromptTemplates;
+import com.taskgenie.service.AiLogRetentionService;
+import com.taskgenie.service.AiLogService;
 import com.taskgenie.service.AiService;
+import com.taskgenie.service.RuleBasedTaskParser;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,10 +29,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @RestController
 @RequestMapping("/api/ai")
 @CrossOrigin(origins = "*")
@@ -22,81 +50,163 @@ public class AiController {
 
   private final AiService aiService;
 
-  public AiController(AiService aiService) {
+  private final AiLogService aiLogService;
+
+  private final AiLogRetentionService aiLogRetentionService;
+
+  private final RuleBasedTaskParser ruleBasedTaskParser;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  public AiController(
+      AiService aiService,
+      AiLogService aiLogService,
+      AiLogRetentionService aiLogRetentionService,
+      RuleBasedTaskParser ruleBasedTaskParser) {
     this.aiService = aiService;
+    this.aiLogService = aiLogService;
+    this.aiLogRetentionService = aiLogRetentionService;
+    this.ruleBasedTaskParser = ruleBasedTaskParser;
   }
 
+  public static final String PARSE_SOURCE_HEADER = "X-Parse-Source";
+
+  private static final String PARSE_SOURCE_RULES = "rules";
+
+  private static final String PARSE_SOURCE_LLM = "llm";
+
   @PostMapping("/generate-description/{userId}")
-  public String generateDescription(
+  public Mono<String> generateDescription(
     @PathVariable UUID userId,
     @RequestParam String title
   ) {
-    String prompt = "Generate a task description with exactly 5-6 simple, actionable points for: " + title + ". Use plain English only - no markdown, no bold text, no special symbols. Format as simple numbered list: 1. First point, 2. Second point, 3. Third point, etc. Each point should be one clear sentence on a new line. Keep language natural and conversational.";
-    return aiService.generate(userId, prompt);
+    return generate(userId, PromptTemplates.GENERATE_DESCRIPTION, Map.of("title", title));
+  }
+
+  @PostMapping(path = "/generate-description/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<Map<String, String>>> streamDescription(
+    @PathVariable UUID userId,
+    @RequestParam String title
+  ) {
+    return generateStream(userId, PromptTemplates.GENERATE_DESCRIPTION, Map.of("title", title));
   }
 
   @PostMapping("/generate-tasks/{userId}")
-  public String generateTasks(
+  public Mono<String> generateTasks(
+    @PathVariable UUID userId,
+    @RequestParam String text
+  ) {
+    return generate(userId, PromptTemplates.GENERATE_TASKS, Map.of("text", text));
+  }
+
+  @PostMapping(path = "/generate-tasks/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<Map<String, String>>> streamTasks(
     @PathVariable UUID userId,
     @RequestParam String text
   ) {
-    String prompt = "Convert this text into actionable tasks with priority: " + text;
-    return aiService.generate(userId, prompt);
+    return generateStream(userId, PromptTemplates.GENERATE_TASKS, Map.of("text", text));
   }
 
   @PostMapping("/summary/{userId}")
-  public String summarizeTasks(@PathVariable UUID userId) {
-    String prompt = "Create a productivity summary for today's tasks.";
-    return aiService.generate(userId, prompt);
+  public Mono<String> summarizeTasks(@PathVariable UUID userId) {
+    return generate(userId, PromptTemplates.SUMMARY, Map.of());
+  }
+
+  @PostMapping(path = "/summary/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<Map<String, String>>> streamSummary(@PathVariable UUID userId) {
+    return generateStream(userId, PromptTemplates.SUMMARY, Map.of());
   }
 
   @GetMapping("/logs/{userId}")
-  public List<AiLog> getAiLogs(@PathVariable UUID userId) {
+  public List<AiLogView> getAiLogs(@PathVariable UUID userId) {
     return aiService.getAiLogs(userId);
   }
 
+  @GetMapping("/logs")
+  public AiLogPage getAiLogPage(
+      @AuthenticationPrincipal String userId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size) {
+    return aiLogService.getPage(UUID.fromString(userId), cursor, size);
+  }
+
+  // Written straight to the response so rows go out as the database cursor yields them
+  @GetMapping("/logs/export")
+  public void exportAiLogs(@AuthenticationPrincipal String userId, HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ai-logs.ndjson\"");
+    aiLogService.exportNdjson(UUID.fromString(userId), response.getOutputStream());
+  }
+
+  @GetMapping("/logs/archives")
+  public List<AiLogArchiveSummary> getAiLogArchives(@AuthenticationPrincipal String userId) {
+    return aiLogRetentionService.listArchives(UUID.fromString(userId));
+  }
+
+  // NDJSON like /logs/export, decompressed straight into the response. from/to narrow the month by
+  // createdAt and q keeps logs whose prompt or response contains it.
+  @GetMapping("/logs/archives/{month}")
+  public void getArchivedAiLogs(
+      @AuthenticationPrincipal String userId,
+      @PathVariable YearMonth month,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String q,
+      HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ai-logs-" + month + ".ndjson\"");
+    aiLogRetentionService.writeArchive(UUID.fromString(userId), month, from, to, q, response.getOutputStream());
+  }
+
+  // Short, unambiguous phrases are parsed locally; anything else goes to the LLM.
+  // X-Parse-Source tells the client which path answered ("rules" or "llm").
   @PostMapping("/parse-task")
-  public String parseTaskFromNaturalLanguage(
+  public Mono<ResponseEntity<String>> parseTaskFromNaturalLanguage(
       @AuthenticationPrincipal String userId,
       @RequestParam String text
   ) {
     if (userId == null || userId.isEmpty()) {
       throw new RuntimeException("User not authenticated for AI parsing. Please login again.");
     }
-    java.time.LocalDate today = java.time.LocalDate.now();
-    java.time.LocalDate tomorrow = today.plusDays(1);
-    String todayStr = today.toString();
-    String tomorrowStr = tomorrow.toString();
-    java.time.LocalDate nextWeek = today.plusDays(7);
-    String nextWeekStr = nextWeek.toString();
-
-    String prompt = "You are a task parsing assistant. Parse this natural language into JSON ONLY. " +
-      "Extract: title (MANDATORY - short, clear task title, must always be provided), description (3-5 numbered points like '1. First point\\n2. Second point'), " +
-      "category (Work/Personal/Health/Education/Others), dueDate (YYYY-MM-DD or null), " +
-      "priority (High/Medium/Low), status (always 'Pending'). " +
-      "CRITICAL: You MUST always provide a title field. If unclear, create a reasonable title based on the input. " +
-      "DATE RULES (analyze the text carefully for date mentions): " +
-      "- 'today' or 'today' = " + todayStr + ", " +
-      "- 'tomorrow' or 'tomorrow' = " + tomorrowStr + ", " +
-      "- 'next week' or 'next week' = " + nextWeekStr + ", " +
-      "- 'in X days' = add X days to today, " +
-      "- Specific dates like 'Jan 15', 'January 15', '15th Jan' = calculate the date in YYYY-MM-DD format, " +
-      "- Days like 'Monday', 'Tuesday' = calculate next occurrence of that day, " +
-      "- If no date mentioned, use null. " +
-      "PRIORITY RULES (analyze urgency keywords in the text): " +
-      "- High: urgent, asap, important, critical, emergency, deadline soon, must do, high priority, top priority, immediately, now, today, rush, pressing " +
-      "- Medium: normal, regular, standard, moderate, default (use this if unclear or no urgency mentioned), " +
-      "- Low: low priority, optional, whenever, later, not urgent, can wait, someday, no rush " +
-      "CATEGORY RULES: " +
-      "- Work: work, business, meeting, project, office, job, professional, client, team, deadline, presentation, conference " +
-      "- Personal: personal, family, friends, home, household, shopping, personal care, vacation, trip " +
-      "- Health: health, fitness, doctor, medical, exercise, gym, workout, appointment, checkup, hospital " +
-      "- Education: study, learn, course, class, exam, homework, assignment, school, university, education, research " +
-      "- Others: anything else " +
-      "Return ONLY valid JSON, no other text, no markdown, no explanations. Format: {\"title\":\"Task title\",\"description\":\"1. Point one\\n2. Point two\",\"category\":\"Work\",\"dueDate\":\"" + tomorrowStr + "\",\"priority\":\"Medium\",\"status\":\"Pending\"}. " +
-      "Text: " + text;
-    return aiService.generate(UUID.fromString(userId), prompt);
+    LocalDate today = LocalDate.now();
+    Optional<ParsedTask> parsed = ruleBasedTaskParser.parse(text, today);
+    if (parsed.isPresent()) {
+      try {
+        return Mono.just(parseTaskResponse(PARSE_SOURCE_RULES, objectMapper.writeValueAsString(parsed.get())));
+      } catch (JsonProcessingException ex) {
+        throw new RuntimeException("Failed to serialize parsed task", ex);
+      }
+    }
+    Map<String, Object> values = Map.of(
+        "today", today, "tomorrow", today.plusDays(1), "nextWeek", today.plusDays(7), "text", text);
+    return generate(UUID.fromString(userId), PromptTemplates.PARSE_TASK, values)
+        .map(body -> parseTaskResponse(PARSE_SOURCE_LLM, body));
+  }
+
+  private static ResponseEntity<String> parseTaskResponse(String source, String body) {
+    return ResponseEntity.ok().header(PARSE_SOURCE_HEADER, source).body(body);
   }
-}
 
+  private Mono<String> generate(UUID userId, PromptTemplate template, Map<String, ?> values) {
+    return aiService.generate(userId, template.name(), template.render(values));
+  }
+
+  private Flux<ServerSentEvent<Map<String, String>>> generateStream(
+      UUID userId, PromptTemplate template, Map<String, ?> values) {
+    return toEvents(aiService.generateStream(userId, template.name(), template.render(values)));
+  }
 
+  // Tokens are sent as {"content": ...} so leading spaces survive SSE parsing. The stream ends with a
+  // "done" event, or an "error" event carrying {"message": ...} if the request was rejected.
+  private Flux<ServerSentEvent<Map<String, String>>> toEvents(Flux<String> tokens) {
+    return tokens
+      .map(token -> ServerSentEvent.builder(Map.of("content", token)).build())
+      .concatWith(Mono.just(ServerSentEvent.<Map<String, String>>builder().event("done").build()))
+      .onErrorResume(error -> Mono.just(ServerSentEvent.builder(Map.of("message",
+          error instanceof ResponseStatusException statusException ? statusException.getReason() : error.getMessage()))
+        .event("error")
+        .build()));
+  }
+}
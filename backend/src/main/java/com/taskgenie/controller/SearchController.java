@@ -0,0 +1,33 @@
+package com.taskgenie.controller;
+
+import com.taskgenie.dto.SearchHit;
+import com.taskgenie.service.SearchService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+  @Autowired
+  private SearchService searchService;
+
+  @GetMapping
+  public List<SearchHit> search(
+      @AuthenticationPrincipal String userId,
+      @RequestParam String q,
+      @RequestParam(required = false) String type,
+      @RequestParam(defaultValue = "20") int limit) {
+    return searchService.search(UUID.fromString(userId), q, type, limit);
+  }
+}
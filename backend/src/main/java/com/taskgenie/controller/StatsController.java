@@ -0,0 +1,94 @@
+package com.taskgenie.controller;
+
+import com.taskgenie.cache.TaskListCache;
+import com.taskgenie.cache.UserCache;
+import com.taskgenie.filter.RateLimitFilter;
+import com.taskgenie.service.AiLogRetentionService;
+import com.taskgenie.service.AiLogWriter;
+import com.taskgenie.service.AiService;
+import com.taskgenie.service.PasswordHasher;
+import com.taskgenie.service.RuleBasedTaskParser;
+import com.taskgenie.service.SearchService;
+import com.taskgenie.service.TaskStatsService;
+import com.taskgenie.util.ConnectionPoolStats;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+  private final AiService aiService;
+
+  private final AiLogWriter aiLogWriter;
+
+  private final SearchService searchService;
+
+  private final AiLogRetentionService aiLogRetentionService;
+
+  private final RuleBasedTaskParser ruleBasedTaskParser;
+
+  private final ConnectionPoolStats aiConnectionPoolStats;
+
+  private final RateLimitFilter rateLimitFilter;
+
+  private final PasswordHasher passwordHasher;
+
+  private final UserCache userCache;
+
+  private final TaskListCache taskListCache;
+
+  private final TaskStatsService taskStatsService;
+
+  public StatsController(
+      AiService aiService,
+      AiLogWriter aiLogWriter,
+      SearchService searchService,
+      AiLogRetentionService aiLogRetentionService,
+      RuleBasedTaskParser ruleBasedTaskParser,
+      ConnectionPoolStats aiConnectionPoolStats,
+      RateLimitFilter rateLimitFilter,
+      PasswordHasher passwordHasher,
+      UserCache userCache,
+      TaskListCache taskListCache,
+      TaskStatsService taskStatsService) {
+    this.aiService = aiService;
+    this.aiLogWriter = aiLogWriter;
+    this.searchService = searchService;
+    this.aiLogRetentionService = aiLogRetentionService;
+    this.ruleBasedTaskParser = ruleBasedTaskParser;
+    this.aiConnectionPoolStats = aiConnectionPoolStats;
+    this.rateLimitFilter = rateLimitFilter;
+    this.passwordHasher = passwordHasher;
+    this.userCache = userCache;
+    this.taskListCache = taskListCache;
+    this.taskStatsService = taskStatsService;
+  }
+
+  // Operators only (SecurityConfig): the same internals Prometheus sees, in one JSON document
+  @GetMapping
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("aiCache", aiService.getCacheStats());
+    stats.put("aiInFlight", aiService.getInFlightStats());
+    stats.put("aiUpstream", aiService.getUpstreamStats());
+    stats.put("aiConnectionPool", aiConnectionPoolStats.snapshot());
+    stats.put("aiLogWriter", aiLogWriter.getStats());
+    stats.put("search", searchService.getStats());
+    stats.put("aiLogRetention", aiLogRetentionService.getStats());
+    stats.put("parseTask", ruleBasedTaskParser.getStats());
+    stats.put("rateLimit", rateLimitFilter.getStats());
+    stats.put("passwordHashing", passwordHasher.getStats());
+    stats.put("userCache", userCache.stats());
+    stats.put("taskListCache", taskListCache.stats());
+    stats.put("taskStats", taskStatsService.cacheStats());
+    return stats;
+  }
+}
@@ -1,9 +1,24 @@
 package com.taskgenie.controller;
 
+import com.taskgenie.cache.TaskListCache;
+import com.taskgenie.dto.TaskBatchRequest;
+import com.taskgenie.dto.TaskBatchResult;
+import com.taskgenie.dto.TaskImportResult;
+import com.taskgenie.dto.TaskPage;
+import com.taskgenie.dto.TaskStats;
+import com.taskgenie.dto.TaskView;
 import com.taskgenie.model.Task;
 import com.taskgenie.service.TaskService;
+import com.taskgenie.service.TaskTransferService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,8 +28,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,18 +46,90 @@ public class TaskController {
   @Autowired
   private TaskService taskService;
 
+  @Autowired
+  private TaskTransferService taskTransferService;
+
   @PostMapping("/")
-  public Task createTask(@AuthenticationPrincipal String userId, @RequestBody Task task) {
+  public TaskView createTask(@AuthenticationPrincipal String userId, @RequestBody Task task) {
     return taskService.createTask(UUID.fromString(userId), task);
   }
 
+  // Clients revalidate with If-None-Match and get 304 while none of their tasks has changed
   @GetMapping("/")
-  public List<Task> getTasks(@AuthenticationPrincipal String userId) {
-    return taskService.getTasks(UUID.fromString(userId));
+  public ResponseEntity<byte[]> getTasks(@AuthenticationPrincipal String userId, WebRequest request) {
+    UUID id = UUID.fromString(userId);
+    if (request.checkNotModified(taskService.getTaskListETag(id))) {
+      return null;
+    }
+    TaskListCache.Payload tasks = taskService.getTaskListJson(id);
+    return ResponseEntity.ok()
+        .eTag(tasks.etag())
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(tasks.json());
+  }
+
+  @GetMapping("/page")
+  public TaskPage getTaskPage(
+      @AuthenticationPrincipal String userId,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String priority,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+      @RequestParam(defaultValue = "dueDate") String sort,
+      @RequestParam(defaultValue = "asc") String direction,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size) {
+    return taskService.getTaskPage(
+        UUID.fromString(userId), status, priority, category, dueFrom, dueTo, sort, direction, cursor, size);
+  }
+
+  @GetMapping("/stats")
+  public TaskStats getStats(@AuthenticationPrincipal String userId) {
+    return taskService.getStats(UUID.fromString(userId));
+  }
+
+  @PostMapping("/batch")
+  public TaskBatchResult applyBatch(@AuthenticationPrincipal String userId, @RequestBody TaskBatchRequest request) {
+    return taskService.applyBatch(UUID.fromString(userId), request);
+  }
+
+  @PutMapping("/batch")
+  public List<TaskView> updateTasks(@AuthenticationPrincipal String userId, @RequestBody List<Task> tasks) {
+    return taskService.applyBatch(UUID.fromString(userId), new TaskBatchRequest(null, tasks, null)).updated();
+  }
+
+  @DeleteMapping("/batch")
+  public String deleteTasks(@AuthenticationPrincipal String userId, @RequestBody List<UUID> taskIds) {
+    int deleted = taskService.applyBatch(UUID.fromString(userId), new TaskBatchRequest(null, null, taskIds)).deleted();
+    return deleted + " tasks deleted successfully";
+  }
+
+  // The request body is read as a stream, one row at a time. Form content types are refused because
+  // the servlet container would consume the body while parsing parameters.
+  @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain", "application/octet-stream"})
+  public TaskImportResult importTasks(
+      @AuthenticationPrincipal String userId,
+      @RequestParam(defaultValue = TaskTransferService.FORMAT_CSV) String format,
+      InputStream body) {
+    return taskTransferService.importTasks(UUID.fromString(userId), format, body);
+  }
+
+  @GetMapping("/export")
+  public void exportTasks(
+      @AuthenticationPrincipal String userId,
+      @RequestParam(defaultValue = TaskTransferService.FORMAT_CSV) String format,
+      HttpServletResponse response) throws IOException {
+    boolean csv = TaskTransferService.FORMAT_CSV.equals(format);
+    response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + (csv ? "csv" : "ndjson") + "\"");
+    taskTransferService.exportTasks(UUID.fromString(userId), format, response.getOutputStream());
   }
 
   @PutMapping("/{taskId}")
-  public Task updateTask(
+  public TaskView updateTask(
       @AuthenticationPrincipal String userId,
       @PathVariable UUID taskId,
       @RequestBody Task task) {
@@ -4,6 +4,7 @@ import com.taskgenie.model.User;
 import com.taskgenie.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -28,6 +30,8 @@ public class UserController {
     try {
       User registeredUser = userService.registerUser(user);
       return ResponseEntity.ok(registeredUser);
+    } catch (RejectedExecutionException e) {
+      return busy();
     } catch (RuntimeException e) {
       Map<String, String> error = new HashMap<>();
       error.put("message", e.getMessage());
@@ -51,12 +55,21 @@ public class UserController {
       Map<String, String> response = new HashMap<>();
       response.put("token", token);
       return ResponseEntity.ok(response);
+    } catch (RejectedExecutionException e) {
+      return busy();
     } catch (RuntimeException e) {
       Map<String, String> error = new HashMap<>();
       error.put("message", e.getMessage());
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
   }
+
+  // Password hashing is saturated; shed the request instead of queueing it
+  private ResponseEntity<?> busy() {
+    Map<String, String> error = new HashMap<>();
+    error.put("message", "Server is busy. Please try again in a moment.");
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+  }
 }
 
 
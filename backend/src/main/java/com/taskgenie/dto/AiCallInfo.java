@@ -0,0 +1,12 @@
+package com.taskgenie.dto;
+
+/**
+ * Which AI backend answered a call and how long it took. {@code firstTokenMs} is only set for streams;
+ * {@code hedged} means a second backend was asked as well.
+ */
+public record AiCallInfo(String provider, String model, Long latencyMs, Long firstTokenMs, boolean hedged) {
+
+  public AiCallInfo withLatencyMs(long latencyMs) {
+    return new AiCallInfo(provider, model, latencyMs, firstTokenMs, hedged);
+  }
+}
@@ -0,0 +1,13 @@
+package com.taskgenie.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Archive metadata without the compressed payload. */
+public record AiLogArchiveSummary(
+    LocalDate periodStart,
+    int entryCount,
+    LocalDateTime firstCreatedAt,
+    LocalDateTime lastCreatedAt,
+    int compressedBytes) {
+}
@@ -0,0 +1,31 @@
+package com.taskgenie.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Opaque keyset position for AI log listing: the last row's creation time and id. */
+public record AiLogCursor(LocalDateTime createdAt, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static AiLogCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      return new AiLogCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new RuntimeException("Invalid cursor. Please restart listing from the first page.");
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.taskgenie.dto;
+
+import java.util.List;
+
+/** One page of AI logs, newest first; {@code nextCursor} is null on the last page. */
+public record AiLogPage(List<AiLogView> items, String nextCursor) {
+}
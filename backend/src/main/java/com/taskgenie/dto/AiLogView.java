@@ -0,0 +1,21 @@
+package com.taskgenie.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model for an AI log without the owning user. Call details are null for cached answers;
+ * {@code traceId} is null for logs written outside a request.
+ */
+public record AiLogView(
+    UUID id,
+    String prompt,
+    String aiResponse,
+    LocalDateTime createdAt,
+    String provider,
+    String model,
+    Long latencyMs,
+    Long firstTokenMs,
+    Boolean hedged,
+    String traceId) {
+}
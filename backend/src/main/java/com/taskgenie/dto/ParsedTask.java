@@ -0,0 +1,11 @@
+package com.taskgenie.dto;
+
+/** Task fields extracted from natural language, in the JSON shape the parse-task prompt asks the LLM for. */
+public record ParsedTask(
+    String title,
+    String description,
+    String category,
+    String dueDate,
+    String priority,
+    String status) {
+}
@@ -0,0 +1,7 @@
+package com.taskgenie.dto;
+
+import java.util.UUID;
+
+/** One ranked search result. {@code type} is "task" or "ai-log". */
+public record SearchHit(String type, UUID id, String title, String snippet, double score) {
+}
@@ -0,0 +1,20 @@
+package com.taskgenie.dto;
+
+import com.taskgenie.model.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Creates, updates and deletes applied together in one transaction. Updates must carry the task id. */
+public record TaskBatchRequest(List<Task> create, List<Task> update, List<UUID> delete) {
+
+  public TaskBatchRequest {
+    create = create == null ? List.of() : create;
+    update = update == null ? List.of() : update;
+    delete = delete == null ? List.of() : delete;
+  }
+
+  public int size() {
+    return create.size() + update.size() + delete.size();
+  }
+}
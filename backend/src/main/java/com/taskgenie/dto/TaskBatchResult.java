@@ -0,0 +1,6 @@
+package com.taskgenie.dto;
+
+import java.util.List;
+
+public record TaskBatchResult(List<TaskView> created, List<TaskView> updated, int deleted) {
+}
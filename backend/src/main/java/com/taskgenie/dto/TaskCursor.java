@@ -0,0 +1,43 @@
+package com.taskgenie.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position for task listing: the sort field and direction, a fingerprint of the
+ * filters, the last row's sort value and its id. A null sort value marks a row whose sort column is
+ * null. A cursor only continues the listing it came from, so the service rejects it when the sort,
+ * direction or filters differ.
+ */
+public record TaskCursor(String sort, boolean descending, String filters, String sortValue, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  /** Fingerprint of a filter set; it tells listings apart, it does not guard against tampering. */
+  public static String filters(String status, String priority, String category, LocalDate dueFrom, LocalDate dueTo) {
+    return Integer.toHexString(Objects.hash(status, priority, category, dueFrom, dueTo));
+  }
+
+  public String encode() {
+    String raw = sort + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + filters + SEPARATOR
+        + (sortValue == null ? "" : sortValue) + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != 5 || (!parts[1].equals("asc") && !parts[1].equals("desc"))) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      String sortValue = parts[3].isEmpty() ? null : parts[3];
+      return new TaskCursor(parts[0], parts[1].equals("desc"), parts[2], sortValue, UUID.fromString(parts[4]));
+    } catch (IllegalArgumentException ex) {
+      throw new RuntimeException("Invalid cursor. Please restart listing from the first page.");
+    }
+  }
+}
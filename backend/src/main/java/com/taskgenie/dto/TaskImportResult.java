@@ -0,0 +1,13 @@
+package com.taskgenie.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a task import. {@code errors} holds the first rejected rows by input line; once it
+ * is full, further failures are only counted and {@code errorsTruncated} is set.
+ */
+public record TaskImportResult(long imported, long failed, List<RowError> errors, boolean errorsTruncated) {
+
+  public record RowError(long line, String message) {
+  }
+}
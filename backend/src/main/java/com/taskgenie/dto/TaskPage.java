@@ -0,0 +1,7 @@
+package com.taskgenie.dto;
+
+import java.util.List;
+
+/** One page of tasks; {@code nextCursor} is null on the last page. */
+public record TaskPage(List<TaskView> items, String nextCursor) {
+}
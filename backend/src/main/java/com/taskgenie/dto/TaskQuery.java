@@ -0,0 +1,22 @@
+package com.taskgenie.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filters, ordering and keyset position for one page of a user's tasks.
+ * {@code sort} is either {@link #SORT_DUE_DATE} or {@link #SORT_CREATED_AT}; ties are broken by id.
+ */
+public record TaskQuery(
+    String status,
+    String priority,
+    String category,
+    LocalDate dueFrom,
+    LocalDate dueTo,
+    String sort,
+    boolean descending,
+    TaskCursor cursor) {
+
+  public static final String SORT_DUE_DATE = "dueDate";
+
+  public static final String SORT_CREATED_AT = "createdAt";
+}
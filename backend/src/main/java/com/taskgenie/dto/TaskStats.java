@@ -0,0 +1,13 @@
+package com.taskgenie.dto;
+
+import java.util.Map;
+
+/** Dashboard counters for one user. Overdue and due-this-week only count tasks that are not completed. */
+public record TaskStats(
+    long total,
+    Map<String, Long> byStatus,
+    Map<String, Long> byPriority,
+    Map<String, Long> byCategory,
+    long overdue,
+    long dueThisWeek) {
+}
@@ -0,0 +1,31 @@
+package com.taskgenie.dto;
+
+import com.taskgenie.model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Read model for a task: task columns only, so queries never join or serialize the owning user. */
+public record TaskView(
+    UUID id,
+    String title,
+    String description,
+    String category,
+    String priority,
+    String status,
+    LocalDate dueDate,
+    LocalDateTime createdAt) {
+
+  public static TaskView from(Task task) {
+    return new TaskView(
+        task.getId(),
+        task.getTitle(),
+        task.getDescription(),
+        task.getCategory(),
+        task.getPriority(),
+        task.getStatus(),
+        task.getDueDate(),
+        task.getCreatedAt());
+  }
+}
@@ -1,12 +1,18 @@
 package com.taskgenie.filter;
 
 import com.taskgenie.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,18 +21,49 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Authenticates requests that carry a bearer token. The cost of each check is recorded in
+ * {@code jwt.validation}, tagged valid, invalid (bad signature, expired or malformed) or error.
+ * Users listed in security.operator-ids also get {@value #OPERATOR_ROLE}.
+ */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+  public static final String OPERATOR_ROLE = "OPERATOR";
+
+  private static final List<SimpleGrantedAuthority> OPERATOR_AUTHORITIES =
+      List.of(new SimpleGrantedAuthority("ROLE_" + OPERATOR_ROLE));
+
   private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
   private final JwtUtil jwtUtil;
 
-  public JwtFilter(JwtUtil jwtUtil) {
+  private final Set<String> operatorIds;
+
+  private final Timer validTimer;
+
+  private final Timer invalidTimer;
+
+  private final Timer errorTimer;
+
+  public JwtFilter(
+      JwtUtil jwtUtil,
+      MeterRegistry meterRegistry,
+      @Value("${security.operator-ids:}") Set<String> operatorIds) {
     this.jwtUtil = jwtUtil;
+    this.operatorIds = operatorIds;
+    this.validTimer = validationTimer(meterRegistry, "valid");
+    this.invalidTimer = validationTimer(meterRegistry, "invalid");
+    this.errorTimer = validationTimer(meterRegistry, "error");
+    Gauge.builder("jwt.cache.size", jwtUtil, JwtUtil::getCacheSize)
+        .description("Verified tokens held so repeat requests skip the signature check")
+        .register(meterRegistry);
   }
 
   @Override
@@ -53,20 +90,27 @@ public class JwtFilter extends OncePerRequestFilter {
     }
 
     if (token != null) {
+      long start = System.nanoTime();
+      Timer timer = errorTimer;
       try {
-        if (jwtUtil.validateToken(token)) {
-          String userId = jwtUtil.getUserId(token);
+        Claims claims = jwtUtil.parseClaims(token);
+        timer = claims == null ? invalidTimer : validTimer;
+        if (claims != null) {
+          String userId = claims.getSubject();
           UsernamePasswordAuthenticationToken auth =
-              new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+              new UsernamePasswordAuthenticationToken(
+                  userId, null, operatorIds.contains(userId) ? OPERATOR_AUTHORITIES : Collections.emptyList());
           auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
           SecurityContextHolder.getContext().setAuthentication(auth);
-          logger.debug("JWT token validated and authentication set for user: " + userId);
+          logger.debug("JWT token validated and authentication set for user: {}", userId);
         } else {
           logger.warn("Invalid JWT token provided");
         }
       } catch (Exception ex) {
         // Log error but continue - let Spring Security handle unauthorized requests
-        logger.error("Error processing JWT token: " + ex.getMessage());
+        logger.error("Error processing JWT token: {}", ex.getMessage());
+      } finally {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
       }
     } else {
       logger.debug("No JWT token found in request");
@@ -74,5 +118,12 @@ public class JwtFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+    return Timer.builder("jwt.validation")
+        .description("Time to verify a bearer token, including cache hits")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
 }
 
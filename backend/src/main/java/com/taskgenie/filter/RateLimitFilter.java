@@ -0,0 +1,110 @@
+package com.taskgenie.filter;
+
+import com.taskgenie.util.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token bucket limits, keyed by the authenticated user or, for anonymous calls and routes
+ * keyed by IP, by the client address. Runs after {@link JwtFilter} so the user is known. Over the
+ * limit the request gets 429 with a Retry-After header and never reaches the controller.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final boolean enabled;
+
+  private final List<Route> routes = new ArrayList<>();
+
+  private final RateLimiter rateLimiter;
+
+  // Each name in rate-limit.routes is read from rate-limit.route.<name>.path, .key, .capacity and
+  // .refill-per-minute; the first route whose path prefixes the request URI applies
+  public RateLimitFilter(
+      Environment environment,
+      @Value("${rate-limit.enabled:true}") boolean enabled,
+      @Value("${rate-limit.routes:}") String[] routeNames,
+      @Value("${rate-limit.stripes:64}") int stripes,
+      @Value("${rate-limit.max-buckets:100000}") int maxBuckets,
+      @Value("${rate-limit.idle-evict-ms:600000}") long idleEvictMs) {
+    this.enabled = enabled;
+    for (String name : routeNames) {
+      String prefix = "rate-limit.route." + name.trim() + ".";
+      int capacity = environment.getRequiredProperty(prefix + "capacity", Integer.class);
+      double refillPerMinute = environment.getProperty(prefix + "refill-per-minute", Double.class, (double) capacity);
+      routes.add(new Route(
+          name.trim() + ":",
+          environment.getRequiredProperty(prefix + "path"),
+          "user".equalsIgnoreCase(environment.getProperty(prefix + "key", "user")),
+          new RateLimiter.Limit(capacity, refillPerMinute / 60)));
+    }
+    this.rateLimiter = new RateLimiter(stripes, maxBuckets, Duration.ofMillis(idleEvictMs));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    Route route = enabled && !"OPTIONS".equals(request.getMethod()) ? match(request.getRequestURI()) : null;
+    if (route != null) {
+      long waitNanos = rateLimiter.tryAcquire(route.name() + clientKey(request, route.byUser()), route.limit());
+      if (waitNanos > 0) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+        return;
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  public Map<String, Long> getStats() {
+    return rateLimiter.getStats();
+  }
+
+  private Route match(String uri) {
+    for (Route route : routes) {
+      if (uri.startsWith(route.path())) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  // The remote address is the direct peer; behind a proxy enable server.forward-headers-strategy
+  private static String clientKey(HttpServletRequest request, boolean byUser) {
+    if (byUser) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (!(authentication instanceof AnonymousAuthenticationToken)
+          && authentication != null
+          && authentication.getPrincipal() instanceof String userId) {
+        return "u:" + userId;
+      }
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private record Route(String name, String path, boolean byUser, RateLimiter.Limit limit) {
+  }
+}
@@ -0,0 +1,84 @@
+package com.taskgenie.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a trace id: the caller's X-Request-Id if it looks sane, else the trace id of a
+ * W3C traceparent header, else a new random one. The id is echoed in the X-Request-Id response header
+ * and held in the logging MDC as {@value #MDC_KEY} while the request is handled, including the async
+ * dispatch that completes Mono and Flux results.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Request-Id";
+
+  public static final String MDC_KEY = "traceId";
+
+  private static final String ATTRIBUTE = TraceIdFilter.class.getName() + ".traceId";
+
+  private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9._-]{8,64}");
+
+  private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}");
+
+  /** The trace id of the request being handled on this thread, or null outside a request. */
+  public static String currentTraceId() {
+    return MDC.get(MDC_KEY);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    // The async dispatch reuses the id chosen when the request first came in
+    String traceId = (String) request.getAttribute(ATTRIBUTE);
+    if (traceId == null) {
+      traceId = incomingTraceId(request);
+      request.setAttribute(ATTRIBUTE, traceId);
+      response.setHeader(HEADER, traceId);
+    }
+    MDC.put(MDC_KEY, traceId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  private static String incomingTraceId(HttpServletRequest request) {
+    String requestId = request.getHeader(HEADER);
+    if (requestId != null && SAFE_ID.matcher(requestId).matches()) {
+      return requestId;
+    }
+    String traceparent = request.getHeader("traceparent");
+    if (traceparent != null) {
+      Matcher matcher = TRACEPARENT.matcher(traceparent.trim());
+      if (matcher.matches()) {
+        return matcher.group(1);
+      }
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return String.format("%016x%016x", random.nextLong(), random.nextLong());
+  }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,7 +13,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ai_logs")
+@Table(
+    name = "ai_logs",
+    // Keyset paging, export and retention all read one user's logs in created_at order
+    indexes = @Index(name = "idx_ai_logs_user_created_at", columnList = "user_id, created_at, id"))
 public class AiLog {
 
   @Id
@@ -31,6 +35,20 @@ public class AiLog {
 
   private LocalDateTime createdAt = LocalDateTime.now();
 
+  // Which provider answered and how fast; all null when the answer came from the cache
+  private String provider;
+
+  private String model;
+
+  private Long latencyMs;
+
+  private Long firstTokenMs;
+
+  private Boolean hedged;
+
+  // Id of the HTTP request that asked for this answer, as logged and returned in X-Request-Id
+  private String traceId;
+
   public UUID getId() {
     return id;
   }
@@ -70,6 +88,54 @@ public class AiLog {
   public void setCreatedAt(LocalDateTime createdAt) {
     this.createdAt = createdAt;
   }
+
+  public String getProvider() {
+    return provider;
+  }
+
+  public void setProvider(String provider) {
+    this.provider = provider;
+  }
+
+  public String getModel() {
+    return model;
+  }
+
+  public void setModel(String model) {
+    this.model = model;
+  }
+
+  public Long getLatencyMs() {
+    return latencyMs;
+  }
+
+  public void setLatencyMs(Long latencyMs) {
+    this.latencyMs = latencyMs;
+  }
+
+  public Long getFirstTokenMs() {
+    return firstTokenMs;
+  }
+
+  public void setFirstTokenMs(Long firstTokenMs) {
+    this.firstTokenMs = firstTokenMs;
+  }
+
+  public Boolean getHedged() {
+    return hedged;
+  }
+
+  public void setHedged(Boolean hedged) {
+    this.hedged = hedged;
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public void setTraceId(String traceId) {
+    this.traceId = traceId;
+  }
 }
 
 
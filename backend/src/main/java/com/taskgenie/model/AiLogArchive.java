@@ -0,0 +1,109 @@
+package com.taskgenie.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One user's AI logs for one calendar month, compacted out of ai_logs into gzip-compressed NDJSON.
+ * Later archival runs for the same month append another gzip member to {@code data}.
+ */
+@Entity
+@Table(
+    name = "ai_log_archives",
+    uniqueConstraints = @UniqueConstraint(name = "uk_ai_log_archives_user_period", columnNames = {"user_id", "period_start"}))
+public class AiLogArchive {
+
+  @Id
+  @GeneratedValue
+  private UUID id;
+
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  // First day of the archived month
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart;
+
+  private int entryCount;
+
+  private LocalDateTime firstCreatedAt;
+
+  private LocalDateTime lastCreatedAt;
+
+  private int compressedBytes;
+
+  @Column(nullable = false, columnDefinition = "bytea")
+  private byte[] data;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public void setUserId(UUID userId) {
+    this.userId = userId;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public void setPeriodStart(LocalDate periodStart) {
+    this.periodStart = periodStart;
+  }
+
+  public int getEntryCount() {
+    return entryCount;
+  }
+
+  public void setEntryCount(int entryCount) {
+    this.entryCount = entryCount;
+  }
+
+  public LocalDateTime getFirstCreatedAt() {
+    return firstCreatedAt;
+  }
+
+  public void setFirstCreatedAt(LocalDateTime firstCreatedAt) {
+    this.firstCreatedAt = firstCreatedAt;
+  }
+
+  public LocalDateTime getLastCreatedAt() {
+    return lastCreatedAt;
+  }
+
+  public void setLastCreatedAt(LocalDateTime lastCreatedAt) {
+    this.lastCreatedAt = lastCreatedAt;
+  }
+
+  public int getCompressedBytes() {
+    return compressedBytes;
+  }
+
+  public void setCompressedBytes(int compressedBytes) {
+    this.compressedBytes = compressedBytes;
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  public void setData(byte[] data) {
+    this.data = data;
+  }
+}
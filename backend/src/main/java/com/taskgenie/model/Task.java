@@ -1,25 +1,47 @@
 package com.taskgenie.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@Table(
+    name = "tasks",
+    indexes = {
+      // Keyset pagination: (user_id, sort column, id) so every page is an index range scan, plus one
+      // per equality filter. Combined filters use the leading one and check the others on the rows.
+      @Index(name = "idx_tasks_user_due_date", columnList = "user_id, due_date, id"),
+      @Index(name = "idx_tasks_user_created_at", columnList = "user_id, created_at, id"),
+      @Index(name = "idx_tasks_user_status_due_date", columnList = "user_id, status, due_date, id"),
+      @Index(name = "idx_tasks_user_status_created_at", columnList = "user_id, status, created_at, id"),
+      @Index(name = "idx_tasks_user_priority_due_date", columnList = "user_id, priority, due_date, id"),
+      @Index(name = "idx_tasks_user_priority_created_at", columnList = "user_id, priority, created_at, id"),
+      @Index(name = "idx_tasks_user_category_due_date", columnList = "user_id, category, due_date, id"),
+      @Index(name = "idx_tasks_user_category_created_at", columnList = "user_id, category, created_at, id")
+    })
 public class Task {
 
   @Id
   @GeneratedValue
   private UUID id;
 
-  @ManyToOne
+  // Lazy and never serialized: task reads only need user_id, not the user row or its password hash
+  @JsonIgnore
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id")
   private User user;
 
@@ -36,6 +58,16 @@ public class Task {
 
   private LocalDate dueDate;
 
+  // Set by the server only: keyset pages sort on it, so clients must not be able to backdate tasks
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  @Column(updatable = false)
+  private LocalDateTime createdAt = LocalDateTime.now();
+
+  @PrePersist
+  void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+
   public UUID getId() {
     return id;
   }
@@ -99,6 +131,12 @@ public class Task {
   public void setDueDate(LocalDate dueDate) {
     this.dueDate = dueDate;
   }
-}
 
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
 
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+}
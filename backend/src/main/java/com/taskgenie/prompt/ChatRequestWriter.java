@@ -0,0 +1,53 @@
+package com.taskgenie.prompt;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes chat completion request bodies with a streaming JSON generator, so prompt text is always
+ * escaped correctly. Each thread reuses one output buffer; the returned byte array is the only
+ * allocation sized to the request.
+ */
+public final class ChatRequestWriter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  // Buffers that grew past this for an unusually large prompt are dropped rather than kept per thread
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private static final ThreadLocal<ByteArrayBuilder> BUFFERS =
+      ThreadLocal.withInitial(() -> new ByteArrayBuilder(4096));
+
+  private ChatRequestWriter() {
+  }
+
+  /** Writes {@code {"model":..,"stream":..,"messages":[{"role":"user","content":..}]}} as UTF-8. */
+  public static byte[] write(String model, String prompt, boolean stream) {
+    ByteArrayBuilder buffer = BUFFERS.get();
+    buffer.reset();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeStringField("model", model);
+      generator.writeBooleanField("stream", stream);
+      generator.writeArrayFieldStart("messages");
+      generator.writeStartObject();
+      generator.writeStringField("role", "user");
+      generator.writeStringField("content", prompt);
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to serialize chat request", ex);
+    }
+    byte[] body = buffer.toByteArray();
+    if (body.length > MAX_RETAINED_BUFFER) {
+      BUFFERS.remove();
+    }
+    return body;
+  }
+}
@@ -0,0 +1,116 @@
+package com.taskgenie.prompt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls the generated text and token usage out of chat completion responses with a streaming parser.
+ * Only the path to the wanted field is walked; every other field is skipped without building a tree.
+ */
+public final class ChatResponseReader {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /** Token counts the provider reported for one call. */
+  public record Usage(long promptTokens, long completionTokens) {
+  }
+
+  private ChatResponseReader() {
+  }
+
+  /**
+   * {@code choices[0].message.content} of a completion, or null if there is none or the body is not
+   * JSON. As with {@code JsonNode.asText()}, a number or boolean is returned as its text and an object
+   * or array as "".
+   */
+  public static String content(String json) {
+    return firstChoiceText(json, "message", false);
+  }
+
+  /** {@code choices[0].delta.content} of a streamed chunk, or null if there is none or it is not a string. */
+  public static String delta(String json) {
+    return firstChoiceText(json, "delta", true);
+  }
+
+  /**
+   * The {@code usage} of a completion or of the last chunk of a stream, where Groq nests it under
+   * {@code x_groq}; null if the body has none.
+   */
+  public static Usage usage(String json) {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if (value == JsonToken.START_OBJECT && "usage".equals(name)) {
+          return readUsage(parser);
+        }
+        if (value == JsonToken.START_OBJECT && "x_groq".equals(name)) {
+          return advanceToField(parser, "usage") && parser.nextToken() == JsonToken.START_OBJECT ? readUsage(parser) : null;
+        }
+        parser.skipChildren();
+      }
+      return null;
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  private static Usage readUsage(JsonParser parser) throws IOException {
+    long promptTokens = 0;
+    long completionTokens = 0;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (value == JsonToken.VALUE_NUMBER_INT && "prompt_tokens".equals(name)) {
+        promptTokens = parser.getLongValue();
+      } else if (value == JsonToken.VALUE_NUMBER_INT && "completion_tokens".equals(name)) {
+        completionTokens = parser.getLongValue();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return new Usage(promptTokens, completionTokens);
+  }
+
+  private static String firstChoiceText(String json, String field, boolean stringOnly) {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT
+          || !advanceToField(parser, "choices")
+          || parser.nextToken() != JsonToken.START_ARRAY
+          || parser.nextToken() != JsonToken.START_OBJECT
+          || !advanceToField(parser, field)
+          || parser.nextToken() != JsonToken.START_OBJECT
+          || !advanceToField(parser, "content")) {
+        return null;
+      }
+      JsonToken value = parser.nextToken();
+      if (value == null || value == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (stringOnly) {
+        return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+      }
+      return value.isScalarValue() ? parser.getText() : "";
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  // Leaves the parser on the named field of the current object, skipping the values of the others
+  private static boolean advanceToField(JsonParser parser, String name) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      if (name.equals(parser.currentName())) {
+        return true;
+      }
+      parser.nextToken();
+      parser.skipChildren();
+    }
+    return false;
+  }
+}
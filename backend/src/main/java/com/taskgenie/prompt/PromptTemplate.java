@@ -0,0 +1,127 @@
+package com.taskgenie.prompt;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A named, versioned prompt compiled once into literal segments and typed placeholders. Placeholders
+ * are written {@code {{name}}} (text) or {@code {{name:date}}}; the same name may appear more than once.
+ * Rendering only checks the values and joins them with the precomputed literals.
+ */
+public final class PromptTemplate {
+
+  public enum Type {
+    TEXT,
+    DATE;
+
+    boolean accepts(Object value) {
+      return this == TEXT ? value instanceof CharSequence : value instanceof LocalDate;
+    }
+  }
+
+  private record Placeholder(String name, Type type) {
+  }
+
+  private final String name;
+
+  private final int version;
+
+  // literals[i] is followed by the value of placeholders[slots[i]]; the last literal has no slot
+  private final String[] literals;
+
+  private final int[] slots;
+
+  private final Placeholder[] placeholders;
+
+  private PromptTemplate(String name, int version, String[] literals, int[] slots, Placeholder[] placeholders) {
+    this.name = name;
+    this.version = version;
+    this.literals = literals;
+    this.slots = slots;
+    this.placeholders = placeholders;
+  }
+
+  public static PromptTemplate compile(String name, int version, String source) {
+    List<String> literals = new ArrayList<>();
+    List<Integer> slots = new ArrayList<>();
+    List<Placeholder> placeholders = new ArrayList<>();
+    int position = 0;
+    int open;
+    while ((open = source.indexOf("{{", position)) >= 0) {
+      int close = source.indexOf("}}", open + 2);
+      if (close < 0) {
+        throw new IllegalArgumentException("Unclosed placeholder in prompt " + name + " at offset " + open);
+      }
+      String[] spec = source.substring(open + 2, close).trim().split(":", 2);
+      String placeholderName = spec[0].trim();
+      Type type = spec.length == 1 ? Type.TEXT : Type.valueOf(spec[1].trim().toUpperCase(Locale.ROOT));
+      if (placeholderName.isEmpty()) {
+        throw new IllegalArgumentException("Empty placeholder in prompt " + name + " at offset " + open);
+      }
+      int slot = -1;
+      for (int i = 0; i < placeholders.size(); i++) {
+        if (placeholders.get(i).name().equals(placeholderName)) {
+          if (placeholders.get(i).type() != type) {
+            throw new IllegalArgumentException(
+                "Placeholder " + placeholderName + " is used with two types in prompt " + name);
+          }
+          slot = i;
+        }
+      }
+      if (slot < 0) {
+        placeholders.add(new Placeholder(placeholderName, type));
+        slot = placeholders.size() - 1;
+      }
+      literals.add(source.substring(position, open));
+      slots.add(slot);
+      position = close + 2;
+    }
+    literals.add(source.substring(position));
+    return new PromptTemplate(
+        name,
+        version,
+        literals.toArray(new String[0]),
+        slots.stream().mapToInt(Integer::intValue).toArray(),
+        placeholders.toArray(new Placeholder[0]));
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public int version() {
+    return version;
+  }
+
+  /** Name and version, e.g. {@code parse-task@v1}. */
+  public String id() {
+    return name + "@v" + version;
+  }
+
+  public String render(Map<String, ?> values) {
+    String[] rendered = new String[placeholders.length];
+    for (int i = 0; i < placeholders.length; i++) {
+      Placeholder placeholder = placeholders[i];
+      Object value = values.get(placeholder.name());
+      if (value == null) {
+        throw new IllegalArgumentException("Missing value for " + placeholder.name() + " in prompt " + id());
+      }
+      if (!placeholder.type().accepts(value)) {
+        throw new IllegalArgumentException("Value for " + placeholder.name() + " in prompt " + id()
+            + " must be " + placeholder.type().name().toLowerCase(Locale.ROOT) + ", got " + value.getClass().getSimpleName());
+      }
+      rendered[i] = value.toString();
+    }
+    // String.join sizes and fills the result in one pass, with no intermediate builder copy
+    String[] parts = new String[slots.length * 2 + 1];
+    for (int i = 0; i < slots.length; i++) {
+      parts[i * 2] = literals[i];
+      parts[i * 2 + 1] = rendered[slots[i]];
+    }
+    parts[slots.length * 2] = literals[slots.length];
+    return String.join("", parts);
+  }
+}
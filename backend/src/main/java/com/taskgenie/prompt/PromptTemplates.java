@@ -0,0 +1,50 @@
+package com.taskgenie.prompt;
+
+/**
+ * Prompts sent to the LLM. Each template is named after the endpoint that uses it; bump the version
+ * whenever the wording changes so logs and benchmarks can tell prompt revisions apart.
+ */
+public final class PromptTemplates {
+
+  public static final PromptTemplate GENERATE_DESCRIPTION = PromptTemplate.compile("generate-description", 1,
+      "Generate a task description with exactly 5-6 simple, actionable points for: {{title}}. "
+          + "Use plain English only - no markdown, no bold text, no special symbols. "
+          + "Format as simple numbered list: 1. First point, 2. Second point, 3. Third point, etc. "
+          + "Each point should be one clear sentence on a new line. Keep language natural and conversational.");
+
+  public static final PromptTemplate GENERATE_TASKS = PromptTemplate.compile("generate-tasks", 1,
+      "Convert this text into actionable tasks with priority: {{text}}");
+
+  public static final PromptTemplate SUMMARY = PromptTemplate.compile("summary", 1,
+      "Create a productivity summary for today's tasks.");
+
+  public static final PromptTemplate PARSE_TASK = PromptTemplate.compile("parse-task", 1,
+      "You are a task parsing assistant. Parse this natural language into JSON ONLY. "
+          + "Extract: title (MANDATORY - short, clear task title, must always be provided), description (3-5 numbered points like '1. First point\\n2. Second point'), "
+          + "category (Work/Personal/Health/Education/Others), dueDate (YYYY-MM-DD or null), "
+          + "priority (High/Medium/Low), status (always 'Pending'). "
+          + "CRITICAL: You MUST always provide a title field. If unclear, create a reasonable title based on the input. "
+          + "DATE RULES (analyze the text carefully for date mentions): "
+          + "- 'today' or 'today' = {{today:date}}, "
+          + "- 'tomorrow' or 'tomorrow' = {{tomorrow:date}}, "
+          + "- 'next week' or 'next week' = {{nextWeek:date}}, "
+          + "- 'in X days' = add X days to today, "
+          + "- Specific dates like 'Jan 15', 'January 15', '15th Jan' = calculate the date in YYYY-MM-DD format, "
+          + "- Days like 'Monday', 'Tuesday' = calculate next occurrence of that day, "
+          + "- If no date mentioned, use null. "
+          + "PRIORITY RULES (analyze urgency keywords in the text): "
+          + "- High: urgent, asap, important, critical, emergency, deadline soon, must do, high priority, top priority, immediately, now, today, rush, pressing "
+          + "- Medium: normal, regular, standard, moderate, default (use this if unclear or no urgency mentioned), "
+          + "- Low: low priority, optional, whenever, later, not urgent, can wait, someday, no rush "
+          + "CATEGORY RULES: "
+          + "- Work: work, business, meeting, project, office, job, professional, client, team, deadline, presentation, conference "
+          + "- Personal: personal, family, friends, home, household, shopping, personal care, vacation, trip "
+          + "- Health: health, fitness, doctor, medical, exercise, gym, workout, appointment, checkup, hospital "
+          + "- Education: study, learn, course, class, exam, homework, assignment, school, university, education, research "
+          + "- Others: anything else "
+          + "Return ONLY valid JSON, no other text, no markdown, no explanations. Format: {\"title\":\"Task title\",\"description\":\"1. Point one\\n2. Point two\",\"category\":\"Work\",\"dueDate\":\"{{tomorrow:date}}\",\"priority\":\"Medium\",\"status\":\"Pending\"}. "
+          + "Text: {{text}}");
+
+  private PromptTemplates() {
+  }
+}
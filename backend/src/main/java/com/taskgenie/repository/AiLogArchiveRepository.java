@@ -0,0 +1,38 @@
+package com.taskgenie.repository;
+
+import com.taskgenie.dto.AiLogArchiveSummary;
+import com.taskgenie.model.AiLogArchive;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AiLogArchiveRepository extends JpaRepository<AiLogArchive, UUID> {
+
+  Optional<AiLogArchive> findByUserIdAndPeriodStart(UUID userId, LocalDate periodStart);
+
+  // select ... for update, so concurrent retention runs append to a month one at a time
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from AiLogArchive a where a.userId = :userId and a.periodStart = :periodStart")
+  Optional<AiLogArchive> findForUpdate(@Param("userId") UUID userId, @Param("periodStart") LocalDate periodStart);
+
+  @Query("select new com.taskgenie.dto.AiLogArchiveSummary("
+      + "a.periodStart, a.entryCount, a.firstCreatedAt, a.lastCreatedAt, a.compressedBytes) "
+      + "from AiLogArchive a where a.userId = :userId order by a.periodStart desc")
+  List<AiLogArchiveSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+  @Transactional
+  @Modifying
+  @Query("delete from AiLogArchive a where a.periodStart < :periodStart")
+  int deleteByPeriodStartBefore(@Param("periodStart") LocalDate periodStart);
+}
@@ -1,16 +1,66 @@
 package com.taskgenie.repository;
 
+import com.taskgenie.dto.AiLogView;
 import com.taskgenie.model.AiLog;
 import com.taskgenie.model.User;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface AiLogRepository extends JpaRepository<AiLog, UUID> {
 
   List<AiLog> findByUser(User user);
-}
 
+  String VIEW_COLUMNS = "new com.taskgenie.dto.AiLogView("
+      + "l.id, l.prompt, l.aiResponse, l.createdAt, l.provider, l.model, l.latencyMs, l.firstTokenMs, l.hedged, l.traceId)";
+
+  @Query("select " + VIEW_COLUMNS + " from AiLog l where l.user.id = :userId")
+  List<AiLogView> findViewsByUserId(@Param("userId") UUID userId);
+
+  @Query("select " + VIEW_COLUMNS + " from AiLog l where l.user.id = :userId order by l.createdAt desc, l.id desc")
+  List<AiLogView> findNewestViews(@Param("userId") UUID userId, Limit limit);
+
+  // Written as "createdAt <= c AND (createdAt < c OR id < last)" so the leading bound is an index range
+  @Query("select " + VIEW_COLUMNS + " from AiLog l where l.user.id = :userId "
+      + "and l.createdAt <= :createdAt and (l.createdAt < :createdAt or l.id < :id) "
+      + "order by l.createdAt desc, l.id desc")
+  List<AiLogView> findViewsBefore(
+      @Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
 
+  // Must be consumed inside a transaction; the fetch size lets PostgreSQL stream rows through a cursor
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("select " + VIEW_COLUMNS + " from AiLog l where l.user.id = :userId order by l.createdAt desc, l.id desc")
+  Stream<AiLogView> streamViewsByUserId(@Param("userId") UUID userId);
+
+  @Query("select distinct l.user.id from AiLog l where l.createdAt < :before")
+  List<UUID> findUserIdsWithLogsBefore(@Param("before") LocalDateTime before);
+
+  @Query("select min(l.createdAt) from AiLog l where l.user.id = :userId and l.createdAt < :before")
+  LocalDateTime findOldestCreatedAtBefore(@Param("userId") UUID userId, @Param("before") LocalDateTime before);
+
+  // Same cursor streaming as streamViewsByUserId, so a month is archived without holding it in memory
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("select " + VIEW_COLUMNS + " from AiLog l where l.user.id = :userId "
+      + "and l.createdAt >= :from and l.createdAt < :to order by l.createdAt, l.id")
+  Stream<AiLogView> streamViewsByUserIdInRange(
+      @Param("userId") UUID userId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Transactional
+  @Modifying
+  @Query("delete from AiLog l where l.user.id = :userId and l.createdAt >= :from and l.createdAt < :to")
+  int deleteByUserIdInRange(
+      @Param("userId") UUID userId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,16 +1,55 @@
 package com.taskgenie.repository;
 
+import com.taskgenie.dto.TaskView;
 import com.taskgenie.model.Task;
-import com.taskgenie.model.User;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskRepositoryCustom {
+
+  String VIEW_COLUMNS = "new com.taskgenie.dto.TaskView("
+      + "t.id, t.title, t.description, t.category, t.priority, t.status, t.dueDate, t.createdAt)";
+
+  @Query("select " + VIEW_COLUMNS + " from Task t where t.user.id = :userId")
+  List<TaskView> findViewsByUserId(@Param("userId") UUID userId);
+
+  // Must be consumed inside a transaction; the fetch size lets PostgreSQL stream rows through a cursor
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("select " + VIEW_COLUMNS + " from Task t where t.user.id = :userId order by t.createdAt, t.id")
+  Stream<TaskView> streamViewsByUserId(@Param("userId") UUID userId);
+
+  @Query("select " + VIEW_COLUMNS + " from Task t where t.id = :id and t.user.id = :userId")
+  Optional<TaskView> findViewByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+  Optional<Task> findByIdAndUserId(UUID id, UUID userId);
+
+  // Single DELETE statement; the derived deleteBy form would load each entity first
+  @Transactional
+  @Modifying
+  @Query("delete from Task t where t.id = :id and t.user.id = :userId")
+  int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
 
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+  // Ownership check for a whole batch in one query: ids missing from the result are absent or not the user's
+  List<Task> findAllByIdInAndUserId(Collection<UUID> ids, UUID userId);
 
-  List<Task> findByUser(User user);
+  // Rows of (status, priority, category, dueDate, count) used to seed dashboard counters
+  @Query("select t.status, t.priority, t.category, t.dueDate, count(t) from Task t "
+      + "where t.user.id = :userId group by t.status, t.priority, t.category, t.dueDate")
+  List<Object[]> countByUserGrouped(@Param("userId") UUID userId);
 }
 
 
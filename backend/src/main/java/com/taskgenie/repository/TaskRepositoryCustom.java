@@ -0,0 +1,13 @@
+package com.taskgenie.repository;
+
+import com.taskgenie.dto.TaskQuery;
+import com.taskgenie.dto.TaskView;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskRepositoryCustom {
+
+  /** Returns up to {@code limit} task views after the query's cursor, in the query's order. */
+  List<TaskView> findPage(UUID userId, TaskQuery query, int limit);
+}
@@ -0,0 +1,123 @@
+package com.taskgenie.repository;
+
+import com.taskgenie.dto.TaskCursor;
+import com.taskgenie.dto.TaskQuery;
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.model.Task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Nulls;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<TaskView> findPage(UUID userId, TaskQuery query, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<TaskView> criteria = cb.createQuery(TaskView.class);
+    Root<Task> task = criteria.from(Task.class);
+    criteria.select(cb.construct(
+        TaskView.class,
+        task.get("id"),
+        task.get("title"),
+        task.get("description"),
+        task.get("category"),
+        task.get("priority"),
+        task.get("status"),
+        task.get("dueDate"),
+        task.get("createdAt")));
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.equal(task.get("user").get("id"), userId));
+    if (query.status() != null) {
+      predicates.add(cb.equal(task.get("status"), query.status()));
+    }
+    if (query.priority() != null) {
+      predicates.add(cb.equal(task.get("priority"), query.priority()));
+    }
+    if (query.category() != null) {
+      predicates.add(cb.equal(task.get("category"), query.category()));
+    }
+    Path<LocalDate> dueDate = task.get("dueDate");
+    if (query.dueFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(dueDate, query.dueFrom()));
+    }
+    if (query.dueTo() != null) {
+      predicates.add(cb.lessThanOrEqualTo(dueDate, query.dueTo()));
+    }
+
+    Path<UUID> id = task.get("id");
+    Path<?> sortPath;
+    if (TaskQuery.SORT_CREATED_AT.equals(query.sort())) {
+      Path<LocalDateTime> createdAt = task.get("createdAt");
+      sortPath = createdAt;
+      if (query.cursor() != null) {
+        predicates.add(afterCursor(cb, createdAt, id, query, LocalDateTime::parse));
+      }
+    } else {
+      sortPath = dueDate;
+      if (query.cursor() != null) {
+        predicates.add(afterCursor(cb, dueDate, id, query, LocalDate::parse));
+      }
+    }
+
+    // Null sort values go last in ascending order and first in descending order,
+    // which matches PostgreSQL's defaults and so the index order
+    if (query.descending()) {
+      criteria.orderBy(cb.desc(sortPath, Nulls.FIRST), cb.desc(id));
+    } else {
+      criteria.orderBy(cb.asc(sortPath, Nulls.LAST), cb.asc(id));
+    }
+    criteria.where(predicates.toArray(new Predicate[0]));
+
+    return entityManager.createQuery(criteria).setMaxResults(limit).getResultList();
+  }
+
+  private <T extends Comparable<? super T>> Predicate afterCursor(
+      CriteriaBuilder cb,
+      Path<T> field,
+      Path<UUID> id,
+      TaskQuery query,
+      Function<String, T> parser) {
+    TaskCursor cursor = query.cursor();
+    if (cursor.sortValue() == null) {
+      // Cursor sits inside the block of rows whose sort column is null
+      Predicate inNullBlock = cb.and(
+          cb.isNull(field),
+          query.descending() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id()));
+      return query.descending() ? cb.or(inNullBlock, cb.isNotNull(field)) : inNullBlock;
+    }
+
+    T value;
+    try {
+      value = parser.apply(cursor.sortValue());
+    } catch (DateTimeParseException ex) {
+      throw new RuntimeException("Invalid cursor. Please restart listing from the first page.");
+    }
+    // Written as "field >= v AND (field > v OR id > last)" so the leading bound is an index range
+    Predicate afterValue = query.descending()
+        ? cb.and(
+            cb.lessThanOrEqualTo(field, value),
+            cb.or(cb.lessThan(field, value), cb.lessThan(id, cursor.id())))
+        : cb.and(
+            cb.greaterThanOrEqualTo(field, value),
+            cb.or(cb.greaterThan(field, value), cb.greaterThan(id, cursor.id())));
+    return query.descending() ? afterValue : cb.or(afterValue, cb.isNull(field));
+  }
+}
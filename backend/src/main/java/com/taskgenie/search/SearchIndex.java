@@ -0,0 +1,271 @@
+package com.taskgenie.search;
+
+import com.taskgenie.dto.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory inverted index over one user's documents, ranked with BM25. Documents are numbered in
+ * insertion order and postings are parallel int arrays, so scoring a term is a tight array scan.
+ * Updates append a new document and tombstone the old one; tombstones are compacted away once they
+ * outnumber live documents.
+ *
+ * <p>While a seed load is running ({@link #beginSeed()} .. {@link #endSeed()}), live writes win over
+ * seeded rows for the same document, since the seed snapshot may be older.
+ */
+public class SearchIndex {
+
+  private static final double K1 = 1.2;
+
+  private static final double B = 0.75;
+
+  // Title terms count this many times so title matches outrank body matches
+  private static final int TITLE_WEIGHT = 2;
+
+  private static final int SNIPPET_LENGTH = 160;
+
+  private static final int MIN_COMPACT_TOMBSTONES = 1024;
+
+  private final List<Doc> docs = new ArrayList<>();
+
+  // Per-ordinal length (-1 once deleted) and type id, kept as arrays so scoring never touches Doc objects
+  private int[] lengths = new int[16];
+
+  private byte[] typeIds = new byte[16];
+
+  private final List<String> types = new ArrayList<>();
+
+  private final Map<DocKey, Integer> ordinals = new HashMap<>();
+
+  private final Map<String, Postings> postings = new HashMap<>();
+
+  private long totalLength;
+
+  private int tombstones;
+
+  private Set<DocKey> touchedDuringSeed;
+
+  public synchronized void put(String type, UUID id, String title, String body) {
+    DocKey key = new DocKey(type, id);
+    if (touchedDuringSeed != null) {
+      touchedDuringSeed.add(key);
+    }
+    insert(key, title, body);
+  }
+
+  public synchronized void remove(String type, UUID id) {
+    DocKey key = new DocKey(type, id);
+    if (touchedDuringSeed != null) {
+      touchedDuringSeed.add(key);
+    }
+    delete(key);
+  }
+
+  public synchronized void beginSeed() {
+    touchedDuringSeed = new HashSet<>();
+  }
+
+  /** Adds a row read from the database unless a live write already covered the same document. */
+  public synchronized void seed(String type, UUID id, String title, String body) {
+    DocKey key = new DocKey(type, id);
+    if (touchedDuringSeed == null || !touchedDuringSeed.contains(key)) {
+      insert(key, title, body);
+    }
+  }
+
+  public synchronized void endSeed() {
+    touchedDuringSeed = null;
+  }
+
+  public synchronized int size() {
+    return ordinals.size();
+  }
+
+  /** Returns the best {@code limit} matches for any of the query terms; {@code type} null means all types. */
+  public synchronized List<SearchHit> search(String query, String type, int limit) {
+    Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+    int liveCount = ordinals.size();
+    if (terms.isEmpty() || liveCount == 0 || limit <= 0) {
+      return List.of();
+    }
+    int typeFilter = type == null ? -1 : types.indexOf(type);
+    if (type != null && typeFilter < 0) {
+      return List.of();
+    }
+    float averageLength = Math.max(1f, (float) totalLength / liveCount);
+    // Length normalisation precomputed per term pass: k1 * (1 - b + b * length / avgLength)
+    float lengthScale = (float) (K1 * B / averageLength);
+    float lengthBase = (float) (K1 * (1 - B));
+    float[] scores = new float[docs.size()];
+    boolean matched = false;
+    for (String term : terms) {
+      Postings list = postings.get(term);
+      if (list == null || list.liveCount == 0) {
+        continue;
+      }
+      matched = true;
+      float idfBoost = (float) (Math.log(1 + (liveCount - list.liveCount + 0.5) / (list.liveCount + 0.5)) * (K1 + 1));
+      int[] postingDocs = list.docs;
+      int[] frequencies = list.frequencies;
+      for (int i = 0; i < list.size; i++) {
+        int ordinal = postingDocs[i];
+        int length = lengths[ordinal];
+        if (length < 0 || (typeFilter >= 0 && typeIds[ordinal] != typeFilter)) {
+          continue;
+        }
+        int tf = frequencies[i];
+        scores[ordinal] += idfBoost * tf / (tf + lengthBase + lengthScale * length);
+      }
+    }
+    if (!matched) {
+      return List.of();
+    }
+
+    PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+    for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+      if (scores[ordinal] > 0 && (best.size() < limit || scores[ordinal] > scores[best.peek()])) {
+        best.add(ordinal);
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+    }
+    List<SearchHit> hits = new ArrayList<>(best.size());
+    while (!best.isEmpty()) {
+      int ordinal = best.poll();
+      Doc doc = docs.get(ordinal);
+      hits.add(new SearchHit(doc.key.type(), doc.key.id(), doc.title, doc.snippet, scores[ordinal]));
+    }
+    Collections.reverse(hits);
+    return hits;
+  }
+
+  private void insert(DocKey key, String title, String body) {
+    delete(key);
+    Map<String, Integer> frequencies = new HashMap<>();
+    int length = 0;
+    for (String token : Tokenizer.tokenize(title)) {
+      frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+      length += TITLE_WEIGHT;
+    }
+    for (String token : Tokenizer.tokenize(body)) {
+      frequencies.merge(token, 1, Integer::sum);
+      length++;
+    }
+    int ordinal = docs.size();
+    docs.add(new Doc(key, title, snippet(body), length, frequencies.keySet().toArray(new String[0])));
+    if (ordinal == lengths.length) {
+      lengths = Arrays.copyOf(lengths, ordinal * 2);
+      typeIds = Arrays.copyOf(typeIds, ordinal * 2);
+    }
+    lengths[ordinal] = length;
+    typeIds[ordinal] = typeId(key.type());
+    ordinals.put(key, ordinal);
+    totalLength += length;
+    frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, frequency));
+  }
+
+  private void delete(DocKey key) {
+    Integer ordinal = ordinals.remove(key);
+    if (ordinal == null) {
+      return;
+    }
+    Doc doc = docs.set(ordinal, null);
+    lengths[ordinal] = -1;
+    totalLength -= doc.length;
+    for (String term : doc.terms) {
+      postings.get(term).liveCount--;
+    }
+    tombstones++;
+    if (tombstones >= MIN_COMPACT_TOMBSTONES && tombstones > ordinals.size()) {
+      compact();
+    }
+  }
+
+  private void compact() {
+    int[] remap = new int[docs.size()];
+    List<Doc> live = new ArrayList<>(ordinals.size());
+    for (int ordinal = 0; ordinal < docs.size(); ordinal++) {
+      Doc doc = docs.get(ordinal);
+      remap[ordinal] = doc == null ? -1 : live.size();
+      if (doc != null) {
+        lengths[live.size()] = lengths[ordinal];
+        typeIds[live.size()] = typeIds[ordinal];
+        ordinals.put(doc.key, live.size());
+        live.add(doc);
+      }
+    }
+    docs.clear();
+    docs.addAll(live);
+    postings.values().removeIf(list -> list.liveCount == 0);
+    postings.values().forEach(list -> list.remap(remap));
+    tombstones = 0;
+  }
+
+  private byte typeId(String type) {
+    int id = types.indexOf(type);
+    if (id < 0) {
+      types.add(type);
+      id = types.size() - 1;
+    }
+    return (byte) id;
+  }
+
+  private static String snippet(String text) {
+    if (text == null) {
+      return null;
+    }
+    return text.length() <= SNIPPET_LENGTH ? text : text.substring(0, SNIPPET_LENGTH) + "...";
+  }
+
+  private record DocKey(String type, UUID id) {
+  }
+
+  private record Doc(DocKey key, String title, String snippet, int length, String[] terms) {
+  }
+
+  private static final class Postings {
+
+    int[] docs = new int[4];
+
+    int[] frequencies = new int[4];
+
+    int size;
+
+    int liveCount;
+
+    void add(int doc, int frequency) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      docs[size] = doc;
+      frequencies[size] = frequency;
+      size++;
+      liveCount++;
+    }
+
+    void remap(int[] remap) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int mapped = remap[docs[i]];
+        if (mapped >= 0) {
+          docs[kept] = mapped;
+          frequencies[kept] = frequencies[i];
+          kept++;
+        }
+      }
+      size = kept;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.taskgenie.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** Splits text into lowercase letter/digit runs; used for both indexing and queries. */
+public final class Tokenizer {
+
+  private Tokenizer() {
+  }
+
+  public static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    if (text == null || text.isEmpty()) {
+      return tokens;
+    }
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i < normalized.length(); i++) {
+      if (Character.isLetterOrDigit(normalized.charAt(i))) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start >= 0) {
+        tokens.add(normalized.substring(start, i));
+        start = -1;
+      }
+    }
+    if (start >= 0) {
+      tokens.add(normalized.substring(start));
+    }
+    return tokens;
+  }
+}
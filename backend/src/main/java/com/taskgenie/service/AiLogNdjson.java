@@ -0,0 +1,31 @@
+package com.taskgenie.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.taskgenie.dto.AiLogView;
+
+import java.io.IOException;
+
+/** The NDJSON line format for AI logs, shared by archives and exports so both read back the same way. */
+final class AiLogNdjson {
+
+  private AiLogNdjson() {
+  }
+
+  // Timestamps as ISO strings so the format does not depend on Jackson time modules. Lines archived
+  // before call details were recorded have no provider, model, timing or trace fields.
+  static void writeLine(JsonGenerator generator, AiLogView log) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("id", log.id().toString());
+    generator.writeStringField("prompt", log.prompt());
+    generator.writeStringField("aiResponse", log.aiResponse());
+    generator.writeStringField("createdAt", log.createdAt() == null ? null : log.createdAt().toString());
+    generator.writeStringField("provider", log.provider());
+    generator.writeStringField("model", log.model());
+    generator.writeObjectField("latencyMs", log.latencyMs());
+    generator.writeObjectField("firstTokenMs", log.firstTokenMs());
+    generator.writeObjectField("hedged", log.hedged());
+    generator.writeStringField("traceId", log.traceId());
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+}
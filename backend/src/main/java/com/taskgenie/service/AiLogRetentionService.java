@@ -0,0 +1,290 @@
+package com.taskgenie.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.taskgenie.dto.AiLogArchiveSummary;
+import com.taskgenie.dto.AiLogView;
+import com.taskgenie.model.AiLogArchive;
+import com.taskgenie.repository.AiLogArchiveRepository;
+import com.taskgenie.repository.AiLogRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps ai_logs small. Logs older than the hot window are moved, one user-month at a time, into
+ * ai_log_archives as gzip-compressed NDJSON. Archives past the retention period are dropped.
+ */
+@Service
+public class AiLogRetentionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AiLogRetentionService.class);
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Autowired
+  private AiLogRepository aiLogRepository;
+
+  @Autowired
+  private AiLogArchiveRepository aiLogArchiveRepository;
+
+  @Autowired
+  private SearchService searchService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${ai.log.retention.enabled:true}")
+  private boolean enabled;
+
+  @Value("${ai.log.retention.hot-days:30}")
+  private int hotDays;
+
+  // 0 keeps archives forever
+  @Value("${ai.log.retention.archive-months:12}")
+  private int archiveMonths;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final AtomicLong archivedLogs = new AtomicLong();
+
+  private final AtomicLong droppedArchives = new AtomicLong();
+
+  private volatile LocalDateTime lastRunAt;
+
+  @Scheduled(cron = "${ai.log.retention.cron:0 30 3 * * *}")
+  public void scheduledRun() {
+    if (enabled) {
+      runRetention();
+    }
+  }
+
+  /**
+   * Archives expired logs and drops expired archives. Concurrent calls in this instance are skipped;
+   * other instances are kept apart by the archive row lock.
+   */
+  public void runRetention() {
+    if (!running.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      LocalDateTime cutoff = LocalDate.now().minusDays(hotDays).atStartOfDay();
+      long archived = 0;
+      for (UUID userId : aiLogRepository.findUserIdsWithLogsBefore(cutoff)) {
+        try {
+          archived += archiveUser(userId, cutoff);
+        } catch (RuntimeException ex) {
+          // One bad user must not stop the rest; their logs are retried on the next run
+          logger.error("Failed to archive AI logs for user {}", userId, ex);
+        }
+      }
+      int dropped = 0;
+      if (archiveMonths > 0) {
+        dropped = aiLogArchiveRepository.deleteByPeriodStartBefore(
+            YearMonth.now().minusMonths(archiveMonths).atDay(1));
+      }
+      archivedLogs.addAndGet(archived);
+      droppedArchives.addAndGet(dropped);
+      lastRunAt = LocalDateTime.now();
+      logger.info("AI log retention archived {} logs and dropped {} archives", archived, dropped);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  public List<AiLogArchiveSummary> listArchives(UUID userId) {
+    return aiLogArchiveRepository.findSummariesByUserId(userId);
+  }
+
+  /**
+   * Writes one archived month to {@code out} as NDJSON, decompressing as it goes; only the compressed
+   * archive is held in memory. Null filters match everything: {@code from} and {@code to} bound
+   * createdAt (inclusive, exclusive) and {@code query} matches prompt or response text, ignoring case.
+   */
+  public void writeArchive(
+      UUID userId, YearMonth month, LocalDateTime from, LocalDateTime to, String query, OutputStream out) {
+    AiLogArchive archive = aiLogArchiveRepository.findByUserIdAndPeriodStart(userId, month.atDay(1))
+        .orElseThrow(() -> new RuntimeException("No archived AI logs for " + month + "."));
+    String needle = query == null || query.isBlank() ? null : query.toLowerCase(Locale.ROOT);
+    // Reads across the concatenated gzip members appended by later runs
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getData()))) {
+      if (from == null && to == null && needle == null) {
+        in.transferTo(out);
+        return;
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (matches(line, from, to, needle)) {
+          writer.write(line);
+          writer.write('\n');
+        }
+      }
+      writer.flush();
+    } catch (IOException ex) {
+      // Usually the client went away mid-download
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    return Map.of(
+        "archivedLogs", archivedLogs.get(),
+        "droppedArchives", droppedArchives.get(),
+        "lastRunAt", lastRunAt == null ? "never" : lastRunAt.toString());
+  }
+
+  private long archiveUser(UUID userId, LocalDateTime cutoff) {
+    LocalDateTime oldest = aiLogRepository.findOldestCreatedAtBefore(userId, cutoff);
+    if (oldest == null) {
+      return 0;
+    }
+    long archived = 0;
+    for (YearMonth month = YearMonth.from(oldest); month.atDay(1).atStartOfDay().isBefore(cutoff); month = month.plusMonths(1)) {
+      LocalDateTime from = month.atDay(1).atStartOfDay();
+      LocalDateTime next = month.plusMonths(1).atDay(1).atStartOfDay();
+      LocalDateTime to = next.isBefore(cutoff) ? next : cutoff;
+      archived += archiveRange(userId, month, from, to);
+    }
+    return archived;
+  }
+
+  private int archiveRange(UUID userId, YearMonth month, LocalDateTime from, LocalDateTime to) {
+    Integer archived = transactionTemplate.execute(status -> {
+      // The row lock is taken before the logs are read, so a second instance running retention waits
+      // here and then finds them already deleted instead of appending them twice. A month with no
+      // archive row yet has nothing to lock; there the unique (user_id, period_start) constraint makes
+      // the slower insert fail and roll back, and its logs are picked up by the next run.
+      AiLogArchive archive = aiLogArchiveRepository.findForUpdate(userId, month.atDay(1)).orElse(null);
+      AppendedLogs appended = encode(userId, from, to);
+      if (appended.count() == 0) {
+        return 0;
+      }
+      if (archive == null) {
+        archive = new AiLogArchive();
+        archive.setUserId(userId);
+        archive.setPeriodStart(month.atDay(1));
+        archive.setData(new byte[0]);
+      }
+      // Concatenated gzip members form a valid gzip stream, so earlier runs never need rewriting
+      byte[] data = Arrays.copyOf(archive.getData(), archive.getData().length + appended.data().length);
+      System.arraycopy(appended.data(), 0, data, archive.getData().length, appended.data().length);
+      archive.setData(data);
+      archive.setCompressedBytes(data.length);
+      archive.setEntryCount(archive.getEntryCount() + appended.count());
+      if (archive.getFirstCreatedAt() == null || appended.first().isBefore(archive.getFirstCreatedAt())) {
+        archive.setFirstCreatedAt(appended.first());
+      }
+      if (archive.getLastCreatedAt() == null || appended.last().isAfter(archive.getLastCreatedAt())) {
+        archive.setLastCreatedAt(appended.last());
+      }
+      aiLogArchiveRepository.save(archive);
+      aiLogRepository.deleteByUserIdInRange(userId, from, to);
+      return appended.count();
+    });
+    if (archived != null && archived > 0) {
+      searchService.invalidate(userId);
+    }
+    return archived == null ? 0 : archived;
+  }
+
+  // Streams the range from the database cursor into one gzip member, so only compressed bytes are held
+  private AppendedLogs encode(UUID userId, LocalDateTime from, LocalDateTime to) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    int count = 0;
+    LocalDateTime first = null;
+    LocalDateTime last = null;
+    try (Stream<AiLogView> logs = aiLogRepository.streamViewsByUserIdInRange(userId, from, to);
+        JsonGenerator generator = JSON_FACTORY.createGenerator(new GZIPOutputStream(bytes))) {
+      generator.setRootValueSeparator(null);
+      Iterator<AiLogView> iterator = logs.iterator();
+      while (iterator.hasNext()) {
+        AiLogView log = iterator.next();
+        AiLogNdjson.writeLine(generator, log);
+        // Rows arrive in createdAt order
+        if (first == null) {
+          first = log.createdAt();
+        }
+        last = log.createdAt();
+        count++;
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return new AppendedLogs(bytes.toByteArray(), count, first, last);
+  }
+
+  // Lines are ones AiLogNdjson wrote, so only the three fields the filters look at are read
+  private static boolean matches(String line, LocalDateTime from, LocalDateTime to, String needle) throws IOException {
+    String createdAt = null;
+    String prompt = null;
+    String aiResponse = null;
+    try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken value = parser.nextToken();
+        String text = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+        parser.skipChildren();
+        if ("createdAt".equals(name)) {
+          createdAt = text;
+        } else if ("prompt".equals(name)) {
+          prompt = text;
+        } else if ("aiResponse".equals(name)) {
+          aiResponse = text;
+        }
+      }
+    }
+    if (from != null || to != null) {
+      if (createdAt == null) {
+        return false;
+      }
+      LocalDateTime at = LocalDateTime.parse(createdAt);
+      if ((from != null && at.isBefore(from)) || (to != null && !at.isBefore(to))) {
+        return false;
+      }
+    }
+    return needle == null
+        || (prompt != null && prompt.toLowerCase(Locale.ROOT).contains(needle))
+        || (aiResponse != null && aiResponse.toLowerCase(Locale.ROOT).contains(needle));
+  }
+
+  private record AppendedLogs(byte[] data, int count, LocalDateTime first, LocalDateTime last) {
+  }
+}
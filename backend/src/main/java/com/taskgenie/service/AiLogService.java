@@ -0,0 +1,77 @@
+package com.taskgenie.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.taskgenie.dto.AiLogCursor;
+import com.taskgenie.dto.AiLogPage;
+import com.taskgenie.dto.AiLogView;
+import com.taskgenie.repository.AiLogRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/** Bounded-memory reads of a user's AI logs: keyset pages and a streamed NDJSON export. */
+@Service
+public class AiLogService {
+
+  private static final int MAX_PAGE_SIZE = 200;
+
+  // Flush often enough that clients see steady progress without a syscall per row
+  private static final int EXPORT_FLUSH_ROWS = 100;
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Autowired
+  private AiLogRepository aiLogRepository;
+
+  public AiLogPage getPage(UUID userId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    // Fetch one extra row to learn whether another page exists
+    List<AiLogView> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = aiLogRepository.findNewestViews(userId, Limit.of(pageSize + 1));
+    } else {
+      AiLogCursor position = AiLogCursor.decode(cursor);
+      rows = aiLogRepository.findViewsBefore(userId, position.createdAt(), position.id(), Limit.of(pageSize + 1));
+    }
+    if (rows.size() <= pageSize) {
+      return new AiLogPage(rows, null);
+    }
+    List<AiLogView> items = rows.subList(0, pageSize);
+    AiLogView last = items.get(pageSize - 1);
+    return new AiLogPage(items, new AiLogCursor(last.createdAt(), last.id()).encode());
+  }
+
+  /** Writes every log for the user, newest first, one JSON object per line, as rows arrive from the cursor. */
+  @Transactional(readOnly = true)
+  public long exportNdjson(UUID userId, OutputStream out) {
+    long rows = 0;
+    try (Stream<AiLogView> logs = aiLogRepository.streamViewsByUserId(userId);
+        JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Lines are separated by the newline AiLogNdjson writes, not Jackson's default space
+      generator.setRootValueSeparator(null);
+      Iterator<AiLogView> iterator = logs.iterator();
+      while (iterator.hasNext()) {
+        AiLogNdjson.writeLine(generator, iterator.next());
+        if (++rows % EXPORT_FLUSH_ROWS == 0) {
+          generator.flush();
+        }
+      }
+    } catch (IOException ex) {
+      // Usually the client went away mid-download
+      throw new UncheckedIOException(ex);
+    }
+    return rows;
+  }
+}
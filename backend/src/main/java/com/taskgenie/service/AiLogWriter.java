@@ -0,0 +1,235 @@
+package com.taskgenie.service;
+
+import com.taskgenie.dto.AiCallInfo;
+import com.taskgenie.dto.AiLogView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for AI logs. Callers enqueue without touching the database; a single writer
+ * thread drains the queue in JDBC batches every flush interval, or sooner once a full batch is waiting.
+ * Batches go straight through JDBC, so they are timed here in {@code ai.log.writer.batch} rather than by
+ * the repository metrics.
+ */
+@Component
+public class AiLogWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(AiLogWriter.class);
+
+  // The EXISTS guard keeps the old behaviour of silently skipping logs for unknown users
+  private static final String INSERT_SQL =
+      "INSERT INTO ai_logs (id, user_id, prompt, ai_response, created_at, "
+          + "provider, model, latency_ms, first_token_ms, hedged, trace_id) "
+          + "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM users WHERE id = ?)";
+
+  public enum OverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final ArrayBlockingQueue<PendingAiLog> queue;
+
+  private final int batchSize;
+
+  private final OverflowPolicy overflowPolicy;
+
+  private final ScheduledExecutorService flusher;
+
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  // Batch currently being written; still counts as pending until the insert returns
+  private volatile List<PendingAiLog> writing = List.of();
+
+  private final AtomicLong enqueued = new AtomicLong();
+
+  private final AtomicLong written = new AtomicLong();
+
+  private final AtomicLong skipped = new AtomicLong();
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final AtomicLong failed = new AtomicLong();
+
+  private final AtomicLong batches = new AtomicLong();
+
+  private final Timer batchTimer;
+
+  private final Timer failedBatchTimer;
+
+  public AiLogWriter(
+      JdbcTemplate jdbcTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${ai.log.writer.queue-capacity:10000}") int queueCapacity,
+      @Value("${ai.log.writer.batch-size:200}") int batchSize,
+      @Value("${ai.log.writer.flush-interval-ms:500}") long flushIntervalMs,
+      @Value("${ai.log.writer.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.overflowPolicy = overflowPolicy;
+    this.batchTimer = batchTimer(meterRegistry, "success");
+    this.failedBatchTimer = batchTimer(meterRegistry, "failure");
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "ai-log-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queues a log row; never blocks. When the queue is full the overflow policy decides what is lost.
+   * {@code call} is null when no provider was called. Returns the queued log, or null if it was dropped.
+   */
+  public AiLogView enqueue(UUID userId, String prompt, String aiResponse, AiCallInfo call, String traceId) {
+    PendingAiLog log = new PendingAiLog(UUID.randomUUID(), userId, prompt, aiResponse, LocalDateTime.now(), call, traceId);
+    while (!queue.offer(log)) {
+      if (overflowPolicy == OverflowPolicy.DROP_NEWEST || queue.poll() == null) {
+        dropped.incrementAndGet();
+        return null;
+      }
+      dropped.incrementAndGet();
+    }
+    enqueued.incrementAndGet();
+    if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+      flusher.execute(this::flushSafely);
+    }
+    return log.toView();
+  }
+
+  /** Logs for the user that are queued or being written and may not be visible to queries yet. */
+  public List<AiLogView> pending(UUID userId) {
+    List<AiLogView> logs = new ArrayList<>();
+    for (PendingAiLog log : writing) {
+      if (log.userId().equals(userId)) {
+        logs.add(log.toView());
+      }
+    }
+    for (PendingAiLog log : queue) {
+      if (log.userId().equals(userId)) {
+        logs.add(log.toView());
+      }
+    }
+    return logs;
+  }
+
+  public Map<String, Long> getStats() {
+    return Map.of(
+        "queued", (long) queue.size(),
+        "enqueued", enqueued.get(),
+        "written", written.get(),
+        "skipped", skipped.get(),
+        "dropped", dropped.get(),
+        "failed", failed.get(),
+        "batches", batches.get());
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    flusher.shutdown();
+    if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+      flusher.shutdownNow();
+    }
+    // Drain whatever is left on the shutdown thread so no accepted log is lost
+    flush();
+    logger.info("AI log writer stopped; {} rows written, {} dropped, {} failed", written.get(), dropped.get(), failed.get());
+  }
+
+  private void flushSafely() {
+    flushRequested.set(false);
+    try {
+      flush();
+    } catch (RuntimeException ex) {
+      logger.error("AI log flush failed", ex);
+    }
+  }
+
+  private void flush() {
+    List<PendingAiLog> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      writing = List.copyOf(batch);
+      long start = System.nanoTime();
+      try {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (int count : counts[0]) {
+          // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+          if (count == 0) {
+            skipped.incrementAndGet();
+          } else {
+            written.incrementAndGet();
+          }
+        }
+      } catch (RuntimeException ex) {
+        // Don't retry: a poison row would otherwise block every later log behind it
+        failedBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        failed.addAndGet(batch.size());
+        logger.error("Failed to write {} AI logs: {}", batch.size(), ex.getMessage());
+      }
+      writing = List.of();
+      batches.incrementAndGet();
+      batch.clear();
+    }
+  }
+
+  private static Timer batchTimer(MeterRegistry meterRegistry, String outcome) {
+    return Timer.builder("ai.log.writer.batch")
+        .description("Time to insert one batch of AI logs")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private void bind(PreparedStatement statement, PendingAiLog log) throws SQLException {
+    statement.setObject(1, log.id());
+    statement.setObject(2, log.userId());
+    statement.setString(3, log.prompt());
+    statement.setString(4, log.aiResponse());
+    statement.setObject(5, log.createdAt());
+    AiCallInfo call = log.call();
+    statement.setString(6, call == null ? null : call.provider());
+    statement.setString(7, call == null ? null : call.model());
+    statement.setObject(8, call == null ? null : call.latencyMs(), Types.BIGINT);
+    statement.setObject(9, call == null ? null : call.firstTokenMs(), Types.BIGINT);
+    statement.setObject(10, call == null ? null : call.hedged(), Types.BOOLEAN);
+    statement.setString(11, log.traceId());
+    statement.setObject(12, log.userId());
+  }
+
+  private record PendingAiLog(
+      UUID id, UUID userId, String prompt, String aiResponse, LocalDateTime createdAt, AiCallInfo call, String traceId) {
+
+    AiLogView toView() {
+      if (call == null) {
+        return new AiLogView(id, prompt, aiResponse, createdAt, null, null, null, null, null, traceId);
+      }
+      return new AiLogView(id, prompt, aiResponse, createdAt,
+          call.provider(), call.model(), call.latencyMs(), call.firstTokenMs(), call.hedged(), traceId);
+    }
+  }
+}
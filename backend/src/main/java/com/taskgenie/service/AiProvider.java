@@ -0,0 +1,397 @@
+package com.taskgenie.service;
+
+import com.taskgenie.prompt.ChatRequestWriter;
+import com.taskgenie.prompt.ChatResponseReader;
+import com.taskgenie.util.CircuitBreaker;
+import com.taskgenie.util.LatencyHistogram;
+import com.taskgenie.util.OutcomeWindow;
+import com.taskgenie.util.RetryBudget;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+/**
+ * One OpenAI-compatible chat completions backend (Groq, or any other provider with the same API).
+ * Each attempt goes through a circuit breaker; 429 and 5xx responses and failed connects are retried
+ * with jittered exponential backoff while the retry budget allows. A stream is only retried until its
+ * first event arrives. Recent outcomes are kept in windows that {@link AiRouter} uses for routing.
+ *
+ * <p>Every attempt is timed in {@code ai.provider.requests}, tagged with its kind, outcome and HTTP
+ * status (a stream until its last event); {@code ai.provider.first.event} times streams to their first
+ * event, and {@code ai.provider.tokens} counts the prompt and completion tokens the provider reports.
+ */
+public class AiProvider {
+
+  private static final Logger logger = LoggerFactory.getLogger(AiProvider.class);
+
+  private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENT_TYPE =
+      new ParameterizedTypeReference<>() {};
+
+  private final String name;
+
+  private final String model;
+
+  private final WebClient webClient;
+
+  private final String url;
+
+  private final String apiKey;
+
+  private final int maxAttempts;
+
+  private final Duration minBackoff;
+
+  private final Duration maxBackoff;
+
+  private final RetryBudget retryBudget;
+
+  private final CircuitBreaker circuitBreaker;
+
+  private final Retry completionRetry;
+
+  private final LatencyHistogram completionLatency = new LatencyHistogram();
+
+  private final LatencyHistogram firstEventLatency = new LatencyHistogram();
+
+  private final OutcomeWindow completionWindow;
+
+  private final OutcomeWindow firstEventWindow;
+
+  private final AtomicLong attempts = new AtomicLong();
+
+  private final AtomicLong failedAttempts = new AtomicLong();
+
+  private final MeterRegistry meterRegistry;
+
+  private final Timer firstEventTimer;
+
+  private final DistributionSummary promptTokens;
+
+  private final DistributionSummary completionTokens;
+
+  public AiProvider(
+      String name,
+      String model,
+      WebClient webClient,
+      String url,
+      String apiKey,
+      int maxAttempts,
+      Duration minBackoff,
+      Duration maxBackoff,
+      RetryBudget retryBudget,
+      int breakerFailureThreshold,
+      Duration breakerOpenDuration,
+      int windowSize,
+      MeterRegistry meterRegistry) {
+    this.name = name;
+    this.model = model;
+    this.webClient = webClient;
+    this.url = url;
+    this.apiKey = apiKey == null ? null : apiKey.trim();
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.minBackoff = minBackoff;
+    this.maxBackoff = maxBackoff;
+    this.retryBudget = retryBudget;
+    this.circuitBreaker = new CircuitBreaker(name, breakerFailureThreshold, breakerOpenDuration, AiProvider::isUpstreamFailure);
+    this.completionRetry = retrySpec(null);
+    this.completionWindow = new OutcomeWindow(windowSize);
+    this.firstEventWindow = new OutcomeWindow(windowSize);
+    this.meterRegistry = meterRegistry;
+    this.firstEventTimer = Timer.builder("ai.provider.first.event")
+        .description("Time from sending a streamed request to its first event")
+        .tags("provider", name, "model", model)
+        .register(meterRegistry);
+    this.promptTokens = tokenSummary("prompt");
+    this.completionTokens = tokenSummary("completion");
+    if (isConfigured()) {
+      logger.info("AI provider {} ({}) key loaded (length={}, prefix={})",
+          name, model, this.apiKey.length(), this.apiKey.substring(0, Math.min(8, this.apiKey.length())));
+    } else {
+      logger.error("AI provider {} has no API key and will not be used.", name);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getModel() {
+    return model;
+  }
+
+  public boolean isConfigured() {
+    return apiKey != null && !apiKey.isBlank();
+  }
+
+  /** False while the circuit is open, so routing can skip this backend. */
+  public boolean isAvailable() {
+    return isConfigured() && circuitBreaker.isCallPermitted();
+  }
+
+  OutcomeWindow getCompletionWindow() {
+    return completionWindow;
+  }
+
+  OutcomeWindow getFirstEventWindow() {
+    return firstEventWindow;
+  }
+
+  /** Returns the raw JSON response body, or an empty string if the body was empty. */
+  public Mono<String> complete(String prompt) {
+    byte[] requestBody = ChatRequestWriter.write(model, prompt, false);
+    Flux<String> attempt = Flux.defer(() -> {
+      attempts.incrementAndGet();
+      long start = System.nanoTime();
+      AtomicBoolean settled = new AtomicBoolean();
+      return webClient
+        .post()
+        .uri(url)
+        .header("Authorization", "Bearer " + apiKey)
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON)
+        .bodyValue(requestBody)
+        .retrieve()
+        .bodyToMono(String.class)
+        .defaultIfEmpty("")
+        .doOnSuccess(body -> {
+          settled.set(true);
+          long nanos = System.nanoTime() - start;
+          completionLatency.record(nanos);
+          completionWindow.recordSuccess(nanos);
+          recordAttempt("completion", null, nanos);
+          recordUsage(body);
+        })
+        .doOnError(error -> {
+          settled.set(true);
+          recordFailure(completionWindow, error);
+          recordAttempt("completion", error, System.nanoTime() - start);
+        })
+        .doFinally(signal -> {
+          if (signal == SignalType.CANCEL && !settled.get()) {
+            recordAttempt("completion", null, System.nanoTime() - start, "cancelled");
+          }
+          recordCancel(signal, settled, completionWindow, start);
+        })
+        .flux();
+    });
+    return Flux.defer(() -> {
+      retryBudget.recordCall();
+      return circuitBreaker.run(attempt).retryWhen(completionRetry);
+    }).singleOrEmpty();
+  }
+
+  /** Streams the data of each server-sent event up to, not including, the closing [DONE]. */
+  public Flux<String> stream(String prompt) {
+    byte[] requestBody = ChatRequestWriter.write(model, prompt, true);
+    return Flux.defer(() -> {
+      retryBudget.recordCall();
+      AtomicBoolean started = new AtomicBoolean();
+      Flux<String> attempt = Flux.defer(() -> {
+        attempts.incrementAndGet();
+        long start = System.nanoTime();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicBoolean finished = new AtomicBoolean();
+        return webClient
+          .post()
+          .uri(url)
+          .header("Authorization", "Bearer " + apiKey)
+          .contentType(MediaType.APPLICATION_JSON)
+          .accept(MediaType.TEXT_EVENT_STREAM)
+          .bodyValue(requestBody)
+          .retrieve()
+          .bodyToFlux(SERVER_SENT_EVENT_TYPE)
+          .mapNotNull(ServerSentEvent::data)
+          .takeWhile(data -> !"[DONE]".equals(data))
+          .doOnNext(data -> {
+            if (started.compareAndSet(false, true)) {
+              settled.set(true);
+              long nanos = System.nanoTime() - start;
+              firstEventLatency.record(nanos);
+              firstEventWindow.recordSuccess(nanos);
+              firstEventTimer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+            // Usage comes with the last chunk; the cheap check keeps every other chunk from being parsed twice
+            if (data.contains("\"usage\"")) {
+              recordUsage(data);
+            }
+          })
+          .doOnComplete(() -> {
+            finished.set(true);
+            recordAttempt("stream", null, System.nanoTime() - start);
+          })
+          .doOnError(error -> {
+            finished.set(true);
+            recordAttempt("stream", error, System.nanoTime() - start);
+            if (settled.compareAndSet(false, true)) {
+              recordFailure(firstEventWindow, error);
+            } else {
+              failedAttempts.incrementAndGet();
+            }
+          })
+          .doFinally(signal -> {
+            if (signal == SignalType.CANCEL && !finished.get()) {
+              recordAttempt("stream", null, System.nanoTime() - start, "cancelled");
+            }
+            recordCancel(signal, settled, firstEventWindow, start);
+          });
+      });
+      // Once tokens have reached the caller a retry would repeat them
+      return circuitBreaker.run(attempt).retryWhen(retrySpec(started));
+    });
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("model", model);
+    stats.put("available", isAvailable());
+    stats.put("attempts", attempts.get());
+    stats.put("failedAttempts", failedAttempts.get());
+    stats.put("retryBudget", retryBudget.getStats());
+    stats.put("circuitBreaker", circuitBreaker.getStats());
+    stats.put("completionLatency", completionLatency.snapshot());
+    stats.put("streamFirstEventLatency", firstEventLatency.snapshot());
+    stats.put("recentCompletions", windowStats(completionWindow));
+    stats.put("recentStreams", windowStats(firstEventWindow));
+    return stats;
+  }
+
+  private void recordAttempt(String kind, Throwable error, long nanos) {
+    recordAttempt(kind, error, nanos, error == null ? "success" : "error");
+  }
+
+  private void recordAttempt(String kind, Throwable error, long nanos, String outcome) {
+    Timer.builder("ai.provider.requests")
+        .description("Chat completion attempts, including retries")
+        .tags("provider", name, "model", model, "kind", kind, "outcome", outcome, "status", status(error, outcome))
+        .register(meterRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void recordUsage(String json) {
+    ChatResponseReader.Usage usage = json.isEmpty() ? null : ChatResponseReader.usage(json);
+    if (usage != null) {
+      promptTokens.record(usage.promptTokens());
+      completionTokens.record(usage.completionTokens());
+    }
+  }
+
+  private DistributionSummary tokenSummary(String type) {
+    return DistributionSummary.builder("ai.provider.tokens")
+        .description("Tokens per call as reported in the provider's usage field")
+        .baseUnit("tokens")
+        .tags("provider", name, "model", model, "type", type)
+        .register(meterRegistry);
+  }
+
+  // The HTTP status when there was one; otherwise what kind of failure kept the answer from arriving
+  private static String status(Throwable error, String outcome) {
+    if (error instanceof WebClientResponseException response) {
+      return Integer.toString(response.getStatusCode().value());
+    }
+    if (error == null) {
+      return "success".equals(outcome) ? "200" : "NONE";
+    }
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TimeoutException
+          || cause instanceof ReadTimeoutException
+          || cause instanceof ConnectTimeoutException) {
+        return "TIMEOUT";
+      }
+    }
+    return "IO_ERROR";
+  }
+
+  private void recordFailure(OutcomeWindow window, Throwable error) {
+    failedAttempts.incrementAndGet();
+    // A 400 says nothing about the backend; a 429 means it is turning us away, so route elsewhere
+    if (isUpstreamFailure(error)
+        || (error instanceof WebClientResponseException response && response.getStatusCode().value() == 429)) {
+      window.recordFailure();
+    }
+  }
+
+  // An attempt cancelled before answering (usually a hedge that lost) was at least this slow; counting
+  // it keeps a backend that always loses the race from looking fast. A retry cancels an attempt that
+  // already failed, hence the settled flag.
+  private static void recordCancel(SignalType signal, AtomicBoolean settled, OutcomeWindow window, long start) {
+    if (signal == SignalType.CANCEL && !settled.get()) {
+      window.recordSuccess(System.nanoTime() - start);
+    }
+  }
+
+  private static Map<String, Object> windowStats(OutcomeWindow window) {
+    long p95 = window.percentileNanos(0.95);
+    return Map.of(
+        "size", window.size(),
+        "errorRate", window.errorRate(),
+        "meanMs", TimeUnit.NANOSECONDS.toMillis(window.meanNanos()),
+        "p95Ms", p95 < 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(p95));
+  }
+
+  // The budget is only charged once every other check has passed, so a retry it pays for really happens
+  private Retry retrySpec(AtomicBoolean started) {
+    return Retry.from(signals -> signals.concatMap(signal -> {
+      Throwable failure = signal.failure();
+      if (signal.totalRetries() >= maxAttempts - 1
+          || (started != null && started.get())
+          || !isRetryable(failure)
+          || !retryBudget.tryRetry()) {
+        return Mono.error(failure);
+      }
+      return Mono.delay(backoff(signal.totalRetries()));
+    }));
+  }
+
+  // Exponential backoff with +/-50% jitter so callers that failed together do not retry together
+  private Duration backoff(long retry) {
+    long base = Math.min(maxBackoff.toMillis(), minBackoff.toMillis() << Math.min(retry, 20));
+    return Duration.ofMillis(Math.min(maxBackoff.toMillis(), (long) (base * ThreadLocalRandom.current().nextDouble(0.5, 1.5))));
+  }
+
+  static boolean isRetryable(Throwable error) {
+    if (error instanceof WebClientResponseException response) {
+      return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+    }
+    // A failed connect never reached the backend, so it is always safe to try again
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConnectException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // A 4xx answer (including 429) means the backend is up; only 5xx, timeouts and I/O errors trip the breaker
+  static boolean isUpstreamFailure(Throwable error) {
+    if (error instanceof WebClientResponseException response) {
+      return response.getStatusCode().is5xxServerError();
+    }
+    return true;
+  }
+}
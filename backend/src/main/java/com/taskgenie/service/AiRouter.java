@@ -0,0 +1,258 @@
+package com.taskgenie.service;
+
+import com.taskgenie.dto.AiCallInfo;
+import com.taskgenie.util.OutcomeWindow;
+import com.taskgenie.util.RetryBudget;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Spreads AI calls over the configured providers. Each call goes to the available provider with the
+ * best recent latency, weighted by its recent error rate; a small share is sent to a random provider so
+ * the others keep being measured. If the chosen provider fails before answering, or, with hedging on,
+ * has not answered by its own p95, the same request is sent to the next best provider and whichever
+ * answers first is used. Backup calls are limited by a budget so a slow period cannot double the load.
+ */
+public class AiRouter {
+
+  /** A raw completion body and the provider that produced it. */
+  public record Completion(String body, AiCallInfo call) {}
+
+  /** One streamed event; {@code call} carries the time to the first event. */
+  public record Chunk(String data, AiCallInfo call) {}
+
+  private final List<AiProvider> providers;
+
+  private final int minSamples;
+
+  private final double exploreRatio;
+
+  private final boolean hedgeEnabled;
+
+  private final Duration hedgeMinDelay;
+
+  private final RetryBudget backupBudget;
+
+  private final AtomicLong hedges = new AtomicLong();
+
+  private final AtomicLong failovers = new AtomicLong();
+
+  private final AtomicLong backupWins = new AtomicLong();
+
+  public AiRouter(
+      List<AiProvider> providers,
+      int minSamples,
+      double exploreRatio,
+      boolean hedgeEnabled,
+      Duration hedgeMinDelay,
+      RetryBudget backupBudget) {
+    this.providers = List.copyOf(providers);
+    this.minSamples = Math.max(1, minSamples);
+    this.exploreRatio = exploreRatio;
+    this.hedgeEnabled = hedgeEnabled;
+    this.hedgeMinDelay = hedgeMinDelay;
+    this.backupBudget = backupBudget;
+  }
+
+  public boolean isConfigured() {
+    return !providers.isEmpty();
+  }
+
+  /** Model of the first configured provider; responses are cached under it whichever provider answered. */
+  public String getDefaultModel() {
+    return providers.isEmpty() ? null : providers.get(0).getModel();
+  }
+
+  public Mono<Completion> complete(String prompt) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      AiProvider primary = select(null, false);
+      backupBudget.recordCall();
+      Flux<Completion> first = primary.complete(prompt)
+          .map(body -> new Completion(body, callInfo(primary, start, false)))
+          .flux();
+      AiProvider backup = select(primary, false);
+      if (backup == null) {
+        return first.next();
+      }
+      Supplier<Flux<Completion>> second = () -> backup.complete(prompt)
+          .map(body -> new Completion(body, callInfo(backup, start, true)))
+          .flux();
+      return withBackup(first, second, hedgeDelay(primary.getCompletionWindow()))
+          .doOnNext(completion -> {
+            if (completion.call().hedged()) {
+              backupWins.incrementAndGet();
+            }
+          })
+          .next();
+    });
+  }
+
+  /** Backup calls are only made before the first event, since a stream cannot switch provider midway. */
+  public Flux<Chunk> stream(String prompt) {
+    return Flux.defer(() -> {
+      long start = System.nanoTime();
+      AiProvider primary = select(null, true);
+      backupBudget.recordCall();
+      Flux<Chunk> first = chunks(primary, prompt, start, false);
+      AiProvider backup = select(primary, true);
+      if (backup == null) {
+        return first;
+      }
+      AtomicBoolean counted = new AtomicBoolean();
+      return withBackup(first, () -> chunks(backup, prompt, start, true), hedgeDelay(primary.getFirstEventWindow()))
+          .doOnNext(chunk -> {
+            if (chunk.call().hedged() && counted.compareAndSet(false, true)) {
+              backupWins.incrementAndGet();
+            }
+          });
+    });
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hedging", hedgeEnabled);
+    stats.put("hedges", hedges.get());
+    stats.put("failovers", failovers.get());
+    stats.put("backupWins", backupWins.get());
+    stats.put("backupBudget", backupBudget.getStats());
+    Map<String, Object> providerStats = new LinkedHashMap<>();
+    for (AiProvider provider : providers) {
+      providerStats.put(provider.getName(), provider.getStats());
+    }
+    stats.put("providers", providerStats);
+    return stats;
+  }
+
+  // Best scoring available provider other than exclude; with no exclude and nothing available the first
+  // provider is returned anyway, so the caller gets its circuit-open error
+  AiProvider select(AiProvider exclude, boolean stream) {
+    List<AiProvider> candidates = new ArrayList<>(providers.size());
+    for (AiProvider provider : providers) {
+      if (provider != exclude && provider.isAvailable()) {
+        candidates.add(provider);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return exclude == null ? providers.get(0) : null;
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (candidates.size() > 1 && random.nextDouble() < exploreRatio) {
+      return candidates.get(random.nextInt(candidates.size()));
+    }
+    AiProvider best = null;
+    double bestScore = 0;
+    for (AiProvider provider : candidates) {
+      double score = score(stream ? provider.getFirstEventWindow() : provider.getCompletionWindow());
+      if (best == null || score < bestScore) {
+        best = provider;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  // Providers without enough samples score best so they get measured; errors weigh heavily
+  private double score(OutcomeWindow window) {
+    if (window.size() < minSamples) {
+      return 0;
+    }
+    if (window.successes() == 0) {
+      return Double.MAX_VALUE;
+    }
+    return window.meanNanos() * (1 + 10 * window.errorRate());
+  }
+
+  // Null means no hedge, only failover: hedging is off or there are too few samples to know the p95
+  private Duration hedgeDelay(OutcomeWindow window) {
+    if (!hedgeEnabled || window.successes() < minSamples) {
+      return null;
+    }
+    Duration p95 = Duration.ofNanos(window.percentileNanos(0.95));
+    return p95.compareTo(hedgeMinDelay) > 0 ? p95 : hedgeMinDelay;
+  }
+
+  private <T> Flux<T> withBackup(Flux<T> primary, Supplier<Flux<T>> backup, Duration hedgeDelay) {
+    // Completes with true if the primary failed in a way another provider might not, false once it answered
+    Sinks.One<Boolean> primaryFailed = Sinks.one();
+    Flux<T> watched = primary
+        .doOnNext(value -> primaryFailed.tryEmitValue(false))
+        .doOnComplete(() -> primaryFailed.tryEmitValue(false))
+        .doOnError(error -> primaryFailed.tryEmitValue(isWorthFailover(error)));
+    // Emits true to hedge, false to fail over, or nothing if the primary answered first
+    Mono<Boolean> failover = primaryFailed.asMono().filter(Boolean::booleanValue).map(failure -> false);
+    Mono<Boolean> trigger = hedgeDelay == null
+        ? failover
+        : Mono.firstWithSignal(Mono.delay(hedgeDelay).thenReturn(true), failover);
+    Flux<T> second = trigger.flatMapMany(isHedge -> {
+      if (!backupBudget.tryRetry()) {
+        return Flux.empty();
+      }
+      (isHedge ? hedges : failovers).incrementAndGet();
+      return backup.get();
+    });
+    return Flux.firstWithValue(watched, second).onErrorMap(NoSuchElementException.class, AiRouter::primaryError);
+  }
+
+  // firstWithValue reports "no source produced a value" and attaches the sources' errors as suppressed
+  private static Throwable primaryError(NoSuchElementException error) {
+    for (Throwable suppressed : error.getSuppressed()) {
+      if (Exceptions.isMultiple(suppressed)) {
+        List<Throwable> errors = Exceptions.unwrapMultiple(suppressed);
+        if (!errors.isEmpty()) {
+          return errors.get(0);
+        }
+      }
+      return suppressed;
+    }
+    return error;
+  }
+
+  // A 4xx other than 429 is about the request itself and would fail the same way anywhere
+  private static boolean isWorthFailover(Throwable error) {
+    if (error instanceof WebClientResponseException response) {
+      return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+    }
+    return true;
+  }
+
+  private static Flux<Chunk> chunks(AiProvider provider, String prompt, long start, boolean hedged) {
+    return Flux.defer(() -> {
+      AtomicReference<AiCallInfo> call = new AtomicReference<>();
+      return provider.stream(prompt).map(data -> {
+        AiCallInfo info = call.get();
+        if (info == null) {
+          info = new AiCallInfo(provider.getName(), provider.getModel(), null, elapsedMs(start), hedged);
+          call.set(info);
+        }
+        return new Chunk(data, info);
+      });
+    });
+  }
+
+  private static AiCallInfo callInfo(AiProvider provider, long start, boolean hedged) {
+    return new AiCallInfo(provider.getName(), provider.getModel(), elapsedMs(start), null, hedged);
+  }
+
+  private static long elapsedMs(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+}
@@ -1,148 +1,252 @@
 package com.taskgenie.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.taskgenie.model.AiLog;
-import com.taskgenie.model.User;
+import com.taskgenie.cache.AiCacheKey;
+import com.taskgenie.cache.AiResponseCache;
+import com.taskgenie.cache.CacheStats;
+import com.taskgenie.cache.UserCache;
+import com.taskgenie.dto.AiCallInfo;
+import com.taskgenie.dto.AiLogView;
+import com.taskgenie.filter.TraceIdFilter;
+import com.taskgenie.prompt.ChatResponseReader;
 import com.taskgenie.repository.AiLogRepository;
-import com.taskgenie.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import com.taskgenie.util.CircuitBreaker;
+import com.taskgenie.util.ConcurrencyLimiter;
+import com.taskgenie.util.SingleFlight;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 @Service
 public class AiService {
 
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private final AiRouter aiRouter;
+
+  private final AiResponseCache aiResponseCache;
+
+  private final Set<String> cacheableEndpoints;
 
-  private final WebClient webClient;
+  private final SingleFlight<AiCacheKey, Answer> inFlightRequests = new SingleFlight<>();
+
+  private final ConcurrencyLimiter upstreamLimiter;
 
   @Autowired
   private AiLogRepository aiLogRepository;
 
   @Autowired
-  private UserRepository userRepository;
+  private UserCache userCache;
 
-  @Value("${groq.api.key}")
-  private String groqApiKey;
+  @Autowired
+  private AiLogWriter aiLogWriter;
 
-  public AiService(WebClient webClient) {
-    this.webClient = webClient;
+  @Autowired
+  private SearchService searchService;
+
+  public AiService(
+      AiRouter aiRouter,
+      AiResponseCache aiResponseCache,
+      @Value("${ai.cache.cacheable-endpoints:}") String[] cacheableEndpoints,
+      @Value("${ai.upstream.max-concurrent:32}") int maxConcurrentUpstream,
+      @Value("${ai.upstream.max-queued:256}") int maxQueuedUpstream) {
+    this.aiRouter = aiRouter;
+    this.aiResponseCache = aiResponseCache;
+    this.cacheableEndpoints = Set.copyOf(Arrays.asList(cacheableEndpoints));
+    this.upstreamLimiter = new ConcurrencyLimiter(maxConcurrentUpstream, maxQueuedUpstream);
   }
 
-  @PostConstruct
-  private void logApiKeyStatus() {
-    if (groqApiKey == null || groqApiKey.isBlank()) {
-      System.err.println(
-          "Groq API key is missing. Set groq.api.key in application.properties or GROQ_API_KEY env variable.");
-      return;
-    }
-    groqApiKey = groqApiKey.trim();
-    System.out.println(
-        "Groq API key loaded (length=" + groqApiKey.length() + ", prefix=" + groqApiKey.substring(0, Math.min(8, groqApiKey.length())) + ")");
+  /**
+   * Sends the prompt to the AI providers and logs the exchange without blocking the calling thread.
+   * {@code endpoint} names the calling API; responses for endpoints listed in
+   * {@code ai.cache.cacheable-endpoints} are served from and stored in the cache.
+   */
+  public Mono<String> generate(UUID userId, String endpoint, String prompt) {
+    // Read on the request thread; the log is written from whichever thread completes the call
+    String traceId = TraceIdFilter.currentTraceId();
+    return Mono.defer(() -> {
+      boolean cacheable = cacheableEndpoints.contains(endpoint);
+      AiCacheKey cacheKey = AiCacheKey.of(aiRouter.getDefaultModel(), prompt);
+      if (cacheable) {
+        String cached = aiResponseCache.get(cacheKey);
+        if (cached != null) {
+          saveAiLog(userId, prompt, cached, null, traceId);
+          return Mono.just(cached);
+        }
+      }
+
+      if (!aiRouter.isConfigured()) {
+        return Mono.just("Groq API Error: API key is not configured. Please set groq.api.key in application.properties or GROQ_API_KEY env variable.");
+      }
+
+      // Identical prompts already in flight share one upstream call; every caller still logs its own row.
+      // A waiter that goes away must not cancel the shared call for the others.
+      return Mono.fromFuture(
+          () -> inFlightRequests.execute(cacheKey, () -> requestCompletion(cacheKey, prompt, cacheable).toFuture()),
+          true)
+        .onErrorResume(failure -> !isFastFailure(failure), failure -> Mono.just(new Answer(describeFailure(failure), null)))
+        .onErrorMap(AiService::isFastFailure, AiService::toUnavailable)
+        .doOnNext(answer -> saveAiLog(userId, prompt, answer.text(), answer.call(), traceId))
+        .map(Answer::text);
+    });
   }
 
-  public String generate(UUID userId, String prompt) {
-    String requestJson = """
-      {
-        "model": "llama-3.1-8b-instant",
-        "messages": [
-          {
-            "role": "user",
-            "content": "%s"
+  /**
+   * Streams the completion as it is generated. The assembled text is logged when the stream completes,
+   * fails or is cancelled by the client, and cached only when it completes. Cancelling the returned
+   * Flux cancels the upstream request.
+   */
+  public Flux<String> generateStream(UUID userId, String endpoint, String prompt) {
+    String traceId = TraceIdFilter.currentTraceId();
+    return Flux.defer(() -> {
+      boolean cacheable = cacheableEndpoints.contains(endpoint);
+      AiCacheKey cacheKey = AiCacheKey.of(aiRouter.getDefaultModel(), prompt);
+      if (cacheable) {
+        String cached = aiResponseCache.get(cacheKey);
+        if (cached != null) {
+          saveAiLog(userId, prompt, cached, null, traceId);
+          return Flux.just(cached);
+        }
+      }
+
+      if (!aiRouter.isConfigured()) {
+        return Flux.just("Groq API Error: API key is not configured. Please set groq.api.key in application.properties or GROQ_API_KEY env variable.");
+      }
+
+      long start = System.nanoTime();
+      AtomicReference<AiCallInfo> call = new AtomicReference<>();
+      Flux<String> tokens = aiRouter
+        .stream(prompt)
+        .doOnNext(chunk -> call.compareAndSet(null, chunk.call()))
+        .map(chunk -> extractDelta(chunk.data()))
+        .filter(token -> !token.isEmpty());
+
+      StringBuilder assembled = new StringBuilder();
+      AtomicBoolean failed = new AtomicBoolean();
+      return upstreamLimiter.run(tokens)
+        .onErrorMap(AiService::isFastFailure, AiService::toUnavailable)
+        .onErrorResume(failure -> !(failure instanceof ResponseStatusException), failure -> {
+          failed.set(true);
+          return Flux.just(describeFailure(failure));
+        })
+        .doOnNext(assembled::append)
+        .doOnComplete(() -> {
+          if (cacheable && !failed.get() && !assembled.isEmpty()) {
+            aiResponseCache.put(cacheKey, assembled.toString());
           }
-        ]
+        })
+        .doFinally(signal -> {
+          // Only a rejected request ends in error here; it never reached a provider, so there is nothing to log
+          if (signal != SignalType.ON_ERROR) {
+            AiCallInfo answered = call.get();
+            saveAiLog(userId, prompt, assembled.toString(),
+              answered == null ? null : answered.withLatencyMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)),
+              traceId);
+          }
+        });
+    });
+  }
+
+  private Mono<Answer> requestCompletion(AiCacheKey cacheKey, String prompt, boolean cacheable) {
+    Mono<AiRouter.Completion> responseMono = aiRouter.complete(prompt);
+
+    return upstreamLimiter.run(responseMono).map(completion -> {
+      String response = completion.body();
+      String aiResponse = extractContent(response);
+      // extractContent hands back the raw body when it holds no completion; never cache that
+      if (cacheable && !response.isEmpty() && !aiResponse.equals(response)) {
+        aiResponseCache.put(cacheKey, aiResponse);
       }
-      """.formatted(prompt);
+      return new Answer(aiResponse, completion.call());
+    });
+  }
+
+  // Rejected before reaching a provider, either by the concurrency limit or the open circuit: answer 503 at once
+  private static boolean isFastFailure(Throwable failure) {
+    return failure instanceof RejectedExecutionException || failure instanceof CircuitBreaker.CircuitOpenException;
+  }
 
-    if (groqApiKey == null || groqApiKey.isBlank()) {
-      return "Groq API Error: API key is not configured. Please set groq.api.key in application.properties or GROQ_API_KEY env variable.";
+  private static ResponseStatusException toUnavailable(Throwable failure) {
+    if (failure instanceof CircuitBreaker.CircuitOpenException) {
+      return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+        "AI service is temporarily unavailable. Please try again shortly.");
     }
+    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+      "AI service is busy. Please try again in a few seconds.");
+  }
 
-    String aiResponse;
-    try {
-      Mono<String> responseMono = webClient
-        .post()
-        .uri("https://api.groq.com/openai/v1/chat/completions")
-        .header("Authorization", "Bearer " + groqApiKey)
-        .header("Content-Type", "application/json")
-        .header("Accept", "application/json")
-        .bodyValue(requestJson)
-        .retrieve()
-        .bodyToMono(String.class);
-
-      String response = responseMono.block();
-      aiResponse = extractContent(response);
-    } catch (org.springframework.web.reactive.function.client.WebClientResponseException responseException) {
-      aiResponse = "Groq API Error: The Groq server returned "
+  private String describeFailure(Throwable failure) {
+    if (failure instanceof WebClientResponseException responseException) {
+      return "Groq API Error: The Groq server returned "
         + responseException.getStatusCode().value()
         + ". Please verify your Groq API key, request model and check Groq dashboard. Details: "
         + responseException.getResponseBodyAsString();
-    } catch (Exception exception) {
-      aiResponse = "Groq API Error: Please check your internet connection, Groq API key configuration, or try again in a few minutes. Details: "
-        + exception.getMessage();
     }
-
-    saveAiLog(userId, prompt, aiResponse);
-    return aiResponse;
+    return "Groq API Error: Please check your internet connection, Groq API key configuration, or try again in a few minutes. Details: "
+      + failure.getMessage();
   }
 
-  private void saveAiLog(UUID userId, String prompt, String aiResponse) {
-    try {
-      Optional<User> userOptional = userRepository.findById(userId);
-      if (userOptional.isPresent()) {
-        AiLog aiLog = new AiLog();
-        aiLog.setUser(userOptional.get());
-        aiLog.setPrompt(prompt);
-        aiLog.setAiResponse(aiResponse);
-        aiLogRepository.save(aiLog);
-      }
-    } catch (Exception exception) {
-      // Log error but don't fail the request if logging fails
-      System.err.println("Failed to save AI log: " + exception.getMessage());
+  private void saveAiLog(UUID userId, String prompt, String aiResponse, AiCallInfo call, String traceId) {
+    AiLogView log = aiLogWriter.enqueue(userId, prompt, aiResponse, call, traceId);
+    if (log != null) {
+      searchService.aiLogSaved(userId, log);
     }
   }
 
-  public List<AiLog> getAiLogs(UUID userId) {
-    Optional<User> userOptional = userRepository.findById(userId);
-    if (userOptional.isEmpty()) {
+  public CacheStats getCacheStats() {
+    return aiResponseCache.stats();
+  }
+
+  public Map<String, Object> getUpstreamStats() {
+    return aiRouter.getStats();
+  }
+
+  public Map<String, Long> getInFlightStats() {
+    return Map.of(
+        "inFlight", (long) inFlightRequests.getInFlightCount(),
+        "coalesced", inFlightRequests.getCoalescedCount(),
+        "upstreamActive", (long) upstreamLimiter.getActiveCount(),
+        "upstreamQueued", (long) upstreamLimiter.getQueuedCount(),
+        "upstreamRejected", upstreamLimiter.getRejectedCount());
+  }
+
+  public List<AiLogView> getAiLogs(UUID userId) {
+    if (!userCache.exists(userId)) {
       throw new RuntimeException("User not found. Please verify the user ID and try again.");
     }
-    return aiLogRepository.findByUser(userOptional.get());
+    return aiLogRepository.findViewsByUserId(userId);
+  }
+
+  private String extractDelta(String chunkJson) {
+    String delta = ChatResponseReader.delta(chunkJson);
+    return delta == null ? "" : delta;
   }
 
   private String extractContent(String json) {
     if (json == null || json.isEmpty()) {
       return "Groq API Error: Received empty response. Please retry or check Groq dashboard status.";
     }
+    String content = ChatResponseReader.content(json);
+    // Fallback: return original JSON if there is no completion so caller can still see full details
+    return content == null ? json : content.trim();
+  }
 
-    try {
-      JsonNode root = OBJECT_MAPPER.readTree(json);
-      JsonNode choices = root.path("choices");
-      if (!choices.isArray() || choices.isEmpty()) {
-        return json;
-      }
-
-      JsonNode contentNode = choices
-        .get(0)
-        .path("message")
-        .path("content");
-
-      if (contentNode.isMissingNode() || contentNode.isNull()) {
-        return json;
-      }
-
-      return contentNode.asText().trim();
-    } catch (Exception parseException) {
-      // Fallback: return original JSON if parsing fails so caller can still see full details
-      return json;
-    }
+  // Completion text and the call that produced it, shared by every caller of a coalesced request
+  private record Answer(String text, AiCallInfo call) {
   }
 }
-
@@ -0,0 +1,121 @@
+package com.taskgenie.service;
+
+import com.taskgenie.util.LatencyHistogram;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool, so a burst of logins uses at
+ * most {@code security.bcrypt.threads} cores and the rest of the API keeps running. Up to
+ * {@code security.bcrypt.queue-capacity} calls wait for a thread; beyond that calls fail at once
+ * with {@link RejectedExecutionException}.
+ */
+@Component
+public class PasswordHasher {
+
+  private final PasswordEncoder passwordEncoder;
+
+  private final ThreadPoolExecutor executor;
+
+  // Includes the time spent queued, which is what a caller actually waits
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  private final AtomicLong rehashed = new AtomicLong();
+
+  public PasswordHasher(
+      PasswordEncoder passwordEncoder,
+      @Value("${security.bcrypt.threads:0}") int threads,
+      @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity) {
+    this.passwordEncoder = passwordEncoder;
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public String encode(CharSequence rawPassword) {
+    return call(() -> passwordEncoder.encode(rawPassword));
+  }
+
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /** Whether the hash was made with a lower cost than the one now configured. */
+  public boolean needsRehash(String encodedPassword) {
+    return passwordEncoder.upgradeEncoding(encodedPassword);
+  }
+
+  void recordRehash() {
+    rehashed.incrementAndGet();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("threads", executor.getMaximumPoolSize());
+    stats.put("active", executor.getActiveCount());
+    stats.put("queued", executor.getQueue().size());
+    stats.put("completed", executor.getCompletedTaskCount());
+    stats.put("rejected", rejected.get());
+    stats.put("rehashed", rehashed.get());
+    stats.put("latency", latency.snapshot());
+    return stats;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T call(Callable<T> work) {
+    long start = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(work);
+    } catch (RejectedExecutionException ex) {
+      rejected.incrementAndGet();
+      throw ex;
+    }
+    try {
+      T result = future.get();
+      latency.record(System.nanoTime() - start);
+      return result;
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,349 @@
+package com.taskgenie.service;
+
+import com.taskgenie.dto.ParsedTask;
+
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic parser for short task phrases such as "gym tomorrow". Applies the same date,
+ * priority and category rules as the parse-task LLM prompt, and gives up (returns empty) whenever
+ * the input is long, mentions a time or date it cannot resolve, or matches no single category,
+ * so those cases still go to the LLM.
+ */
+@Component
+public class RuleBasedTaskParser {
+
+  private static final int MAX_LENGTH = 100;
+
+  private static final int MAX_WORDS = 10;
+
+  private static final int MAX_TITLE_LENGTH = 60;
+
+  private static final List<String> HIGH_PRIORITY = List.of(
+      "high priority", "top priority", "deadline soon", "must do", "urgent", "asap", "important", "critical",
+      "emergency", "immediately", "now", "rush", "pressing");
+
+  private static final List<String> LOW_PRIORITY = List.of(
+      "low priority", "not urgent", "can wait", "no rush", "optional", "whenever", "later", "someday");
+
+  private static final Map<String, List<String>> CATEGORIES = Map.of(
+      "Work", List.of("work", "business", "meeting", "project", "office", "job", "professional", "client", "team",
+          "deadline", "presentation", "conference"),
+      "Personal", List.of("personal care", "personal", "family", "friends", "home", "household", "shopping",
+          "vacation", "trip"),
+      "Health", List.of("health", "fitness", "doctor", "medical", "exercise", "gym", "workout", "appointment",
+          "checkup", "hospital"),
+      "Education", List.of("study", "learn", "course", "class", "exam", "homework", "assignment", "school",
+          "university", "education", "research"));
+
+  // Words that carry timing or recurrence the rules cannot express; their presence sends input to the LLM
+  private static final Set<String> AMBIGUOUS = Set.of(
+      "am", "pm", "morning", "afternoon", "evening", "tonight", "noon", "midnight", "weekend", "month", "year",
+      "hour", "hours", "minutes", "before", "after", "until", "till", "every", "daily", "weekly", "monthly",
+      "yesterday", "last", "week", "days", "day");
+
+  // Connectors dropped when they sit right before a date or at either end of the title
+  private static final Set<String> CONNECTORS = Set.of("on", "by", "for", "due", "at", "this", "and", "to");
+
+  private static final Map<String, Integer> NUMBER_WORDS = Map.of(
+      "one", 1, "two", 2, "three", 3, "four", 4, "five", 5, "six", 6, "seven", 7, "eight", 8, "nine", 9, "ten", 10);
+
+  private static final Set<String> MONTH_ABBREVIATIONS = Set.of(
+      "jan", "feb", "mar", "apr", "jun", "jul", "aug", "sep", "sept", "oct", "nov", "dec");
+
+  private static final Pattern DAY_OF_MONTH = Pattern.compile("(\\d{1,2})(st|nd|rd|th)?");
+
+  private final AtomicLong matched = new AtomicLong();
+
+  private final AtomicLong deferred = new AtomicLong();
+
+  public Optional<ParsedTask> parse(String text, LocalDate today) {
+    Optional<ParsedTask> result = tryParse(text, today);
+    (result.isPresent() ? matched : deferred).incrementAndGet();
+    return result;
+  }
+
+  public Map<String, Long> getStats() {
+    return Map.of("rules", matched.get(), "llm", deferred.get());
+  }
+
+  private Optional<ParsedTask> tryParse(String text, LocalDate today) {
+    if (text == null || text.isBlank() || text.length() > MAX_LENGTH) {
+      return Optional.empty();
+    }
+    List<String> words = new ArrayList<>();
+    for (String raw : text.strip().split("\\s+")) {
+      String word = raw.replaceAll("^[\\p{Punct}&&[^']]+|[\\p{Punct}&&[^']]+$", "");
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    if (words.isEmpty() || words.size() > MAX_WORDS) {
+      return Optional.empty();
+    }
+    List<String> lower = words.stream().map(word -> word.toLowerCase(Locale.ROOT)).toList();
+    boolean[] consumed = new boolean[words.size()];
+
+    // Dates
+    LocalDate dueDate = null;
+    for (int i = 0; i < lower.size(); i++) {
+      if (consumed[i]) {
+        continue;
+      }
+      int[] span = new int[1];
+      LocalDate date = resolveDate(lower, i, today, span);
+      if (date == null && span[0] < 0) {
+        return Optional.empty();
+      }
+      if (date == null) {
+        continue;
+      }
+      if (dueDate != null && !dueDate.equals(date)) {
+        return Optional.empty();
+      }
+      dueDate = date;
+      for (int j = i; j < i + span[0]; j++) {
+        consumed[j] = true;
+      }
+      if (i > 0 && !consumed[i - 1] && CONNECTORS.contains(lower.get(i - 1))) {
+        consumed[i - 1] = true;
+      }
+      i += span[0] - 1;
+    }
+
+    // Priority: Medium unless urgency keywords say otherwise; "today" and "now" count as urgent per the prompt
+    // Low first, so "not urgent" is not also read as "urgent"
+    boolean low = consumePhrases(lower, consumed, LOW_PRIORITY);
+    boolean high = consumePhrases(lower, consumed, HIGH_PRIORITY) || lower.contains("today");
+    if (high && low) {
+      return Optional.empty();
+    }
+    String priority = high ? "High" : low ? "Low" : "Medium";
+
+    // Category keywords stay in the title; exactly one category must match
+    String category = null;
+    for (Map.Entry<String, List<String>> entry : CATEGORIES.entrySet()) {
+      if (containsPhrase(lower, entry.getValue())) {
+        if (category != null) {
+          return Optional.empty();
+        }
+        category = entry.getKey();
+      }
+    }
+    if (category == null) {
+      return Optional.empty();
+    }
+
+    List<String> titleWords = new ArrayList<>();
+    for (int i = 0; i < words.size(); i++) {
+      if (consumed[i]) {
+        continue;
+      }
+      String word = lower.get(i);
+      if (AMBIGUOUS.contains(word) || word.chars().anyMatch(Character::isDigit) || monthOf(word) != null
+          || dayOfWeekOf(word) != null) {
+        return Optional.empty();
+      }
+      titleWords.add(words.get(i));
+    }
+    while (!titleWords.isEmpty() && CONNECTORS.contains(titleWords.get(0).toLowerCase(Locale.ROOT))) {
+      titleWords.remove(0);
+    }
+    while (!titleWords.isEmpty()
+        && CONNECTORS.contains(titleWords.get(titleWords.size() - 1).toLowerCase(Locale.ROOT))) {
+      titleWords.remove(titleWords.size() - 1);
+    }
+    String title = String.join(" ", titleWords);
+    if (title.isEmpty() || title.length() > MAX_TITLE_LENGTH) {
+      return Optional.empty();
+    }
+    title = Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    return Optional.of(new ParsedTask(
+        title, null, category, dueDate == null ? null : dueDate.toString(), priority, "Pending"));
+  }
+
+  /**
+   * Resolves a date expression starting at {@code start}. Sets {@code span[0]} to the number of words
+   * used, or to -1 if the words look like a date that cannot be resolved with confidence.
+   */
+  private static LocalDate resolveDate(List<String> words, int start, LocalDate today, int[] span) {
+    String word = words.get(start);
+    String next = start + 1 < words.size() ? words.get(start + 1) : null;
+    String third = start + 2 < words.size() ? words.get(start + 2) : null;
+    span[0] = 1;
+    switch (word) {
+      case "today":
+        return today;
+      case "tomorrow":
+        return today.plusDays(1);
+      case "next":
+        if ("week".equals(next)) {
+          span[0] = 2;
+          return today.plusDays(7);
+        }
+        DayOfWeek nextDay = next == null ? null : dayOfWeekOf(next);
+        if (nextDay != null) {
+          span[0] = 2;
+          return nextOccurrence(today, nextDay, span);
+        }
+        span[0] = -1;
+        return null;
+      case "in":
+        Integer days = next == null ? null : parseCount(next);
+        if (days != null && ("days".equals(third) || "day".equals(third))) {
+          span[0] = 3;
+          return today.plusDays(days);
+        }
+        span[0] = 0;
+        return null;
+      default:
+        break;
+    }
+    DayOfWeek dayOfWeek = dayOfWeekOf(word);
+    if (dayOfWeek != null) {
+      return nextOccurrence(today, dayOfWeek, span);
+    }
+    Month month = monthOf(word);
+    if (month != null) {
+      // "Jan 15" or "January 15th"
+      Integer day = next == null ? null : dayOfMonth(next);
+      if (day == null) {
+        span[0] = -1;
+        return null;
+      }
+      span[0] = 2;
+      return upcoming(today, month, day, span);
+    }
+    Integer day = dayOfMonth(word);
+    if (day != null && next != null) {
+      // "15 Jan", "15th of January"
+      int monthIndex = "of".equals(next) ? start + 2 : start + 1;
+      Month following = monthIndex < words.size() ? monthOf(words.get(monthIndex)) : null;
+      if (following != null) {
+        span[0] = monthIndex - start + 1;
+        return upcoming(today, following, day, span);
+      }
+    }
+    span[0] = 0;
+    return null;
+  }
+
+  private static LocalDate nextOccurrence(LocalDate today, DayOfWeek dayOfWeek, int[] span) {
+    if (today.getDayOfWeek() == dayOfWeek) {
+      // "Monday" said on a Monday could mean today or next week
+      span[0] = -1;
+      return null;
+    }
+    return today.with(TemporalAdjusters.next(dayOfWeek));
+  }
+
+  private static LocalDate upcoming(LocalDate today, Month month, int day, int[] span) {
+    try {
+      LocalDate date = LocalDate.of(today.getYear(), month, day);
+      return date.isBefore(today) ? LocalDate.of(today.getYear() + 1, month, day) : date;
+    } catch (DateTimeException ex) {
+      span[0] = -1;
+      return null;
+    }
+  }
+
+  private static boolean consumePhrases(List<String> words, boolean[] consumed, List<String> phrases) {
+    boolean found = false;
+    for (String phrase : phrases) {
+      String[] parts = phrase.split(" ");
+      for (int i = 0; i + parts.length <= words.size(); i++) {
+        if (matchesAt(words, i, parts) && !anyConsumed(consumed, i, parts.length)) {
+          for (int j = i; j < i + parts.length; j++) {
+            consumed[j] = true;
+          }
+          found = true;
+        }
+      }
+    }
+    return found;
+  }
+
+  private static boolean anyConsumed(boolean[] consumed, int start, int length) {
+    for (int i = start; i < start + length; i++) {
+      if (consumed[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean containsPhrase(List<String> words, List<String> phrases) {
+    for (String phrase : phrases) {
+      String[] parts = phrase.split(" ");
+      for (int i = 0; i + parts.length <= words.size(); i++) {
+        if (matchesAt(words, i, parts)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean matchesAt(List<String> words, int start, String[] parts) {
+    for (int j = 0; j < parts.length; j++) {
+      if (!words.get(start + j).equals(parts[j])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Integer parseCount(String word) {
+    if (NUMBER_WORDS.containsKey(word)) {
+      return NUMBER_WORDS.get(word);
+    }
+    if (word.matches("\\d{1,3}")) {
+      return Integer.parseInt(word);
+    }
+    return null;
+  }
+
+  private static Integer dayOfMonth(String word) {
+    Matcher matcher = DAY_OF_MONTH.matcher(word);
+    if (!matcher.matches()) {
+      return null;
+    }
+    int day = Integer.parseInt(matcher.group(1));
+    return day >= 1 && day <= 31 ? day : null;
+  }
+
+  // Full names only: abbreviations like "sat" and "sun" are too often ordinary words
+  private static DayOfWeek dayOfWeekOf(String word) {
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if (word.equals(day.name().toLowerCase(Locale.ROOT))) {
+        return day;
+      }
+    }
+    return null;
+  }
+
+  private static Month monthOf(String word) {
+    for (Month month : Month.values()) {
+      String name = month.name().toLowerCase(Locale.ROOT);
+      if (word.equals(name) || (MONTH_ABBREVIATIONS.contains(word) && name.startsWith(word))) {
+        return month;
+      }
+    }
+    return null;
+  }
+}
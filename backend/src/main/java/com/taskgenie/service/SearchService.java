@@ -0,0 +1,216 @@
+package com.taskgenie.service;
+
+import com.taskgenie.dto.AiLogView;
+import com.taskgenie.dto.SearchHit;
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.repository.AiLogRepository;
+import com.taskgenie.repository.TaskRepository;
+import com.taskgenie.search.SearchIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ranked full-text search over a user's tasks and AI logs. Each user's index is built from the
+ * database on their first search and then kept current by task and AI log writes. Indexes are kept
+ * for at most max-users users, least recently used first out, and rebuilt once older than the TTL
+ * so writes made by another instance are picked up.
+ */
+@Service
+public class SearchService implements TaskChangeListener {
+
+  public static final String TYPE_TASK = "task";
+
+  public static final String TYPE_AI_LOG = "ai-log";
+
+  private static final int MAX_LIMIT = 100;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private AiLogRepository aiLogRepository;
+
+  @Autowired
+  private AiLogWriter aiLogWriter;
+
+  @Value("${search.max-query-length:200}")
+  private int maxQueryLength;
+
+  private final int maxUsers;
+
+  private final long ttlNanos;
+
+  // Seeds read through database cursors, which only stream inside a transaction
+  private final TransactionTemplate readOnlyTransaction;
+
+  // Guarded by this
+  private final LinkedHashMap<UUID, UserIndex> indexes;
+
+  private long evictions;
+
+  private long expirations;
+
+  public SearchService(
+      @Value("${search.index.max-users:1000}") int maxUsers,
+      @Value("${search.index.ttl-ms:600000}") long ttlMs,
+      PlatformTransactionManager transactionManager) {
+    this.maxUsers = maxUsers;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, UserIndex> eldest) {
+        if (size() > SearchService.this.maxUsers) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public List<SearchHit> search(UUID userId, String query, String type, int limit) {
+    if (query == null || query.isBlank()) {
+      throw new RuntimeException("Search query must not be empty.");
+    }
+    if (query.length() > maxQueryLength) {
+      throw new RuntimeException("Search query too long. At most " + maxQueryLength + " characters are allowed.");
+    }
+    if (type != null && !TYPE_TASK.equals(type) && !TYPE_AI_LOG.equals(type)) {
+      throw new RuntimeException("Invalid type. Use 'task' or 'ai-log'.");
+    }
+    return indexFor(userId).search(query, type, Math.max(1, Math.min(limit, MAX_LIMIT)));
+  }
+
+  @Override
+  public void taskSaved(UUID userId, TaskView task) {
+    UserIndex index = existing(userId);
+    if (index != null) {
+      index.entries.put(TYPE_TASK, task.id(), task.title(), task.description());
+    }
+  }
+
+  @Override
+  public void taskDeleted(UUID userId, UUID taskId) {
+    UserIndex index = existing(userId);
+    if (index != null) {
+      index.entries.remove(TYPE_TASK, taskId);
+    }
+  }
+
+  public void aiLogSaved(UUID userId, AiLogView log) {
+    UserIndex index = existing(userId);
+    if (index != null) {
+      index.entries.put(TYPE_AI_LOG, log.id(), log.prompt(), log.aiResponse());
+    }
+  }
+
+  /** Drops the user's index after bulk changes, such as archiving; the next search reseeds it. */
+  public synchronized void invalidate(UUID userId) {
+    indexes.remove(userId);
+  }
+
+  public synchronized Map<String, Long> getStats() {
+    long documents = 0;
+    for (UserIndex index : indexes.values()) {
+      documents += index.entries.size();
+    }
+    return Map.of(
+        "indexedUsers", (long) indexes.size(),
+        "maxUsers", (long) maxUsers,
+        "documents", documents,
+        "evictions", evictions,
+        "expirations", expirations);
+  }
+
+  // Writes for a user without an index are dropped; their next search seeds from the database
+  private synchronized UserIndex existing(UUID userId) {
+    return indexes.get(userId);
+  }
+
+  // Registered before seeding so writes that race with the seed queries still reach the index.
+  // An index dropped while seeding still answers the search that seeded it.
+  private synchronized UserIndex register(UUID userId) {
+    UserIndex index = indexes.get(userId);
+    if (index != null && System.nanoTime() - index.expiresAt > 0) {
+      indexes.remove(userId);
+      expirations++;
+      index = null;
+    }
+    if (index == null) {
+      index = new UserIndex(System.nanoTime() + ttlNanos);
+      if (maxUsers > 0) {
+        indexes.put(userId, index);
+      }
+    }
+    return index;
+  }
+
+  private SearchIndex indexFor(UUID userId) {
+    UserIndex index = register(userId);
+    if (index.ready) {
+      return index.entries;
+    }
+    // Separate lock from the index itself, so writes are not blocked while the seed queries run
+    synchronized (index.seedLock) {
+      if (!index.ready) {
+        index.entries.beginSeed();
+        // Read the write-behind queue before the table: a log leaving the queue is then already in the table
+        List<AiLogView> pendingLogs = aiLogWriter.pending(userId);
+        readOnlyTransaction.executeWithoutResult(status -> seedFromDatabase(userId, index.entries));
+        for (AiLogView log : pendingLogs) {
+          index.entries.seed(TYPE_AI_LOG, log.id(), log.prompt(), log.aiResponse());
+        }
+        index.entries.endSeed();
+        index.ready = true;
+      }
+    }
+    return index.entries;
+  }
+
+  // Rows are indexed as the cursors yield them, so a user's tasks and logs are never all on the heap
+  private void seedFromDatabase(UUID userId, SearchIndex entries) {
+    try (Stream<TaskView> tasks = taskRepository.streamViewsByUserId(userId)) {
+      Iterator<TaskView> iterator = tasks.iterator();
+      while (iterator.hasNext()) {
+        TaskView task = iterator.next();
+        entries.seed(TYPE_TASK, task.id(), task.title(), task.description());
+      }
+    }
+    try (Stream<AiLogView> logs = aiLogRepository.streamViewsByUserId(userId)) {
+      Iterator<AiLogView> iterator = logs.iterator();
+      while (iterator.hasNext()) {
+        AiLogView log = iterator.next();
+        entries.seed(TYPE_AI_LOG, log.id(), log.prompt(), log.aiResponse());
+      }
+    }
+  }
+
+  private static final class UserIndex {
+
+    final SearchIndex entries = new SearchIndex();
+
+    final long expiresAt;
+
+    final Object seedLock = new Object();
+
+    volatile boolean ready;
+
+    UserIndex(long expiresAt) {
+      this.expiresAt = expiresAt;
+    }
+  }
+}
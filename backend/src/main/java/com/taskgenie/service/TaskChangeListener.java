@@ -0,0 +1,13 @@
+package com.taskgenie.service;
+
+import com.taskgenie.dto.TaskView;
+
+import java.util.UUID;
+
+/** Notified by {@link TaskService} after a task write has been committed. */
+public interface TaskChangeListener {
+
+  void taskSaved(UUID userId, TaskView task);
+
+  void taskDeleted(UUID userId, UUID taskId);
+}
@@ -1,5 +1,14 @@
 package com.taskgenie.service;
 
+import com.taskgenie.cache.TaskListCache;
+import com.taskgenie.cache.UserCache;
+import com.taskgenie.dto.TaskBatchRequest;
+import com.taskgenie.dto.TaskBatchResult;
+import com.taskgenie.dto.TaskCursor;
+import com.taskgenie.dto.TaskPage;
+import com.taskgenie.dto.TaskQuery;
+import com.taskgenie.dto.TaskStats;
+import com.taskgenie.dto.TaskView;
 import com.taskgenie.model.Task;
 import com.taskgenie.model.User;
 import com.taskgenie.repository.TaskRepository;
@@ -7,67 +16,251 @@ import com.taskgenie.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+  private static final int MAX_PAGE_SIZE = 200;
+
+  static final int MAX_BATCH_SIZE = 1000;
+
   @Autowired
   private TaskRepository taskRepository;
 
   @Autowired
   private UserRepository userRepository;
 
-  public Task createTask(UUID userId, Task task) {
-    Optional<User> user = userRepository.findById(userId);
-    if (user.isEmpty()) {
+  @Autowired
+  private UserCache userCache;
+
+  @Autowired
+  private TaskListCache taskListCache;
+
+  @Autowired
+  private TaskStatsService taskStatsService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private List<TaskChangeListener> taskChangeListeners;
+
+  public TaskView createTask(UUID userId, Task task) {
+    if (!userCache.exists(userId)) {
       throw new RuntimeException("User not found!");
     }
-    task.setUser(user.get());
-    return taskRepository.save(task);
+    // A reference is enough to set user_id; the user row is never loaded
+    task.setUser(userRepository.getReferenceById(userId));
+    try (TaskStatsService.Mutation stats = taskStatsService.begin(userId)) {
+      TaskView saved = TaskView.from(taskRepository.save(task));
+      stats.added(saved);
+      stats.commit();
+      taskChangeListeners.forEach(listener -> listener.taskSaved(userId, saved));
+      return saved;
+    }
   }
 
-  public List<Task> getTasks(UUID userId) {
-    Optional<User> user = userRepository.findById(userId);
-    if (user.isEmpty()) {
-      throw new RuntimeException("User not found!");
+  public List<TaskView> getTasks(UUID userId) {
+    return taskRepository.findViewsByUserId(userId);
+  }
+
+  /** ETag of the user's task list as it is now; checking it never queries the task table. */
+  public String getTaskListETag(UUID userId) {
+    return taskListCache.etag(userId);
+  }
+
+  /** The task list serialized as JSON, reused until one of the user's tasks changes. */
+  public TaskListCache.Payload getTaskListJson(UUID userId) {
+    return taskListCache.get(userId, () -> taskRepository.findViewsByUserId(userId));
+  }
+
+  public TaskPage getTaskPage(
+      UUID userId,
+      String status,
+      String priority,
+      String category,
+      LocalDate dueFrom,
+      LocalDate dueTo,
+      String sort,
+      String direction,
+      String cursor,
+      int size) {
+    if (!TaskQuery.SORT_DUE_DATE.equals(sort) && !TaskQuery.SORT_CREATED_AT.equals(sort)) {
+      throw new RuntimeException("Invalid sort field. Use 'dueDate' or 'createdAt'.");
+    }
+    if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+      throw new RuntimeException("Invalid sort direction. Use 'asc' or 'desc'.");
     }
-    return taskRepository.findByUser(user.get());
+    boolean descending = "desc".equalsIgnoreCase(direction);
+    String filters = TaskCursor.filters(status, priority, category, dueFrom, dueTo);
+    TaskCursor taskCursor = null;
+    if (cursor != null && !cursor.isBlank()) {
+      taskCursor = TaskCursor.decode(cursor);
+      if (!sort.equals(taskCursor.sort()) || descending != taskCursor.descending()) {
+        throw new RuntimeException("Cursor was issued for a different sort order.");
+      }
+      if (!filters.equals(taskCursor.filters())) {
+        throw new RuntimeException("Cursor was issued for different filters.");
+      }
+    }
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    TaskQuery query = new TaskQuery(status, priority, category, dueFrom, dueTo, sort, descending, taskCursor);
+
+    // Fetch one extra row to learn whether another page exists
+    List<TaskView> rows = taskRepository.findPage(userId, query, pageSize + 1);
+    if (rows.size() <= pageSize) {
+      return new TaskPage(rows, null);
+    }
+    List<TaskView> items = rows.subList(0, pageSize);
+    TaskView last = items.get(pageSize - 1);
+    Object lastValue = TaskQuery.SORT_CREATED_AT.equals(sort) ? last.createdAt() : last.dueDate();
+    String nextCursor = new TaskCursor(
+        sort, descending, filters, lastValue == null ? null : lastValue.toString(), last.id()).encode();
+    return new TaskPage(items, nextCursor);
   }
 
-  public Task updateTask(UUID userId, UUID taskId, Task updatedTask) {
-    Optional<Task> existingTask = taskRepository.findById(taskId);
+  public TaskView updateTask(UUID userId, UUID taskId, Task updatedTask) {
+    // Ownership is part of the query, so another user's task is simply not found
+    Optional<Task> existingTask = taskRepository.findByIdAndUserId(taskId, userId);
     if (existingTask.isEmpty()) {
       throw new RuntimeException("Task not found!");
     }
     Task task = existingTask.get();
-    // Verify task belongs to the user
-    if (!task.getUser().getId().equals(userId)) {
-      throw new RuntimeException("Unauthorized: You can only update your own tasks");
-    }
-    task.setTitle(updatedTask.getTitle());
-    task.setDescription(updatedTask.getDescription());
-    task.setCategory(updatedTask.getCategory());
-    task.setPriority(updatedTask.getPriority());
-    task.setStatus(updatedTask.getStatus());
-    task.setDueDate(updatedTask.getDueDate());
-    return taskRepository.save(task);
+    try (TaskStatsService.Mutation stats = taskStatsService.begin(userId)) {
+      stats.removed(TaskView.from(task));
+      copyEditableFields(updatedTask, task);
+      TaskView saved = TaskView.from(taskRepository.save(task));
+      stats.added(saved);
+      stats.commit();
+      taskChangeListeners.forEach(listener -> listener.taskSaved(userId, saved));
+      return saved;
+    }
   }
 
   public void deleteTask(UUID userId, UUID taskId) {
-    Optional<Task> task = taskRepository.findById(taskId);
+    Optional<TaskView> task = taskRepository.findViewByIdAndUserId(taskId, userId);
     if (task.isEmpty()) {
       throw new RuntimeException("Task not found!");
     }
-    // Verify task belongs to the user
-    if (!task.get().getUser().getId().equals(userId)) {
-      throw new RuntimeException("Unauthorized: You can only delete your own tasks");
+    try (TaskStatsService.Mutation stats = taskStatsService.begin(userId)) {
+      if (taskRepository.deleteByIdAndUserId(taskId, userId) == 0) {
+        // Deleted concurrently between the lookup and the delete
+        throw new RuntimeException("Task not found!");
+      }
+      stats.removed(task.get());
+      stats.commit();
+      taskChangeListeners.forEach(listener -> listener.taskDeleted(userId, taskId));
+    }
+  }
+
+  /**
+   * Applies every operation in one transaction: either the whole batch is written or nothing is.
+   * Ownership of all updated and deleted tasks is checked with a single query.
+   */
+  public TaskBatchResult applyBatch(UUID userId, TaskBatchRequest request) {
+    if (request.size() == 0) {
+      throw new RuntimeException("Batch is empty.");
+    }
+    if (request.size() > MAX_BATCH_SIZE) {
+      throw new RuntimeException("Batch too large. At most " + MAX_BATCH_SIZE + " operations are allowed.");
+    }
+    Set<UUID> updateIds = new HashSet<>();
+    for (Task task : request.update()) {
+      if (task.getId() == null) {
+        throw new RuntimeException("Every task to update must include its id.");
+      }
+      if (!updateIds.add(task.getId())) {
+        throw new RuntimeException("Task " + task.getId() + " appears more than once in the batch.");
+      }
+    }
+    Set<UUID> deleteIds = new HashSet<>(request.delete());
+    if (deleteIds.contains(null)) {
+      throw new RuntimeException("Task ids to delete must not be null.");
+    }
+    for (UUID id : deleteIds) {
+      if (updateIds.contains(id)) {
+        throw new RuntimeException("Task " + id + " appears more than once in the batch.");
+      }
+    }
+
+    try (TaskStatsService.Mutation stats = taskStatsService.begin(userId)) {
+      TaskBatchResult result = transactionTemplate.execute(status -> {
+        Set<UUID> ownedIds = new HashSet<>(updateIds);
+        ownedIds.addAll(deleteIds);
+        Map<UUID, Task> owned = ownedIds.isEmpty()
+            ? Map.of()
+            : taskRepository.findAllByIdInAndUserId(ownedIds, userId).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        if (owned.size() != ownedIds.size()) {
+          throw new RuntimeException("Task not found or not owned by you!");
+        }
+
+        List<Task> created = new ArrayList<>();
+        if (!request.create().isEmpty()) {
+          if (!userCache.exists(userId)) {
+            throw new RuntimeException("User not found!");
+          }
+          User user = userRepository.getReferenceById(userId);
+          for (Task task : request.create()) {
+            task.setId(null);
+            task.setUser(user);
+            created.add(task);
+          }
+          created = taskRepository.saveAll(created);
+          created.forEach(task -> stats.added(TaskView.from(task)));
+        }
+
+        List<TaskView> updated = new ArrayList<>();
+        for (Task changes : request.update()) {
+          Task task = owned.get(changes.getId());
+          stats.removed(TaskView.from(task));
+          copyEditableFields(changes, task);
+          TaskView view = TaskView.from(task);
+          stats.added(view);
+          updated.add(view);
+        }
+
+        List<Task> deleted = deleteIds.stream().map(owned::get).toList();
+        if (!deleted.isEmpty()) {
+          taskRepository.deleteAllInBatch(deleted);
+          deleted.forEach(task -> stats.removed(TaskView.from(task)));
+        }
+        // Surface constraint violations before the counters are told the batch succeeded
+        taskRepository.flush();
+        return new TaskBatchResult(created.stream().map(TaskView::from).toList(), updated, deleted.size());
+      });
+      stats.commit();
+      for (TaskChangeListener listener : taskChangeListeners) {
+        result.created().forEach(task -> listener.taskSaved(userId, task));
+        result.updated().forEach(task -> listener.taskSaved(userId, task));
+        deleteIds.forEach(id -> listener.taskDeleted(userId, id));
+      }
+      return result;
     }
-    taskRepository.delete(task.get());
   }
-}
 
+  public TaskStats getStats(UUID userId) {
+    return taskStatsService.getStats(userId);
+  }
 
+  private static void copyEditableFields(Task source, Task target) {
+    target.setTitle(source.getTitle());
+    target.setDescription(source.getDescription());
+    target.setCategory(source.getCategory());
+    target.setPriority(source.getPriority());
+    target.setStatus(source.getStatus());
+    target.setDueDate(source.getDueDate());
+  }
+}
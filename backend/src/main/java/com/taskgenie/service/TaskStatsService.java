@@ -0,0 +1,281 @@
+package com.taskgenie.service;
+
+import com.taskgenie.cache.CacheStats;
+import com.taskgenie.dto.TaskStats;
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.repository.TaskRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps per-user task counters in memory. Counters are seeded with a grouped query and then adjusted
+ * by {@link TaskService} through {@link Mutation} handles, so reads never scan tasks. At most
+ * max-users users are tracked, least recently used first out, and counters are reseeded after the
+ * TTL so writes made by another instance show up. Counters with a write in progress are never
+ * dropped, or a seed could miss that write.
+ */
+@Service
+public class TaskStatsService {
+
+  private static final String COMPLETED = "Completed";
+
+  private static final String UNSPECIFIED = "Unspecified";
+
+  private final TaskRepository taskRepository;
+
+  private final int maxUsers;
+
+  private final long ttlNanos;
+
+  private final LongSupplier nanoClock;
+
+  // Guarded by this; the lock of a UserCounters may be taken while holding it, never the reverse
+  private final LinkedHashMap<UUID, UserCounters> countersByUser = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private long evictions;
+
+  private long expirations;
+
+  @Autowired
+  public TaskStatsService(
+      TaskRepository taskRepository,
+      @Value("${task.stats.max-users:10000}") int maxUsers,
+      @Value("${task.stats.ttl-ms:600000}") long ttlMs) {
+    this(taskRepository, maxUsers, ttlMs, System::nanoTime);
+  }
+
+  TaskStatsService(TaskRepository taskRepository, int maxUsers, long ttlMs, LongSupplier nanoClock) {
+    this.taskRepository = taskRepository;
+    this.maxUsers = maxUsers;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.nanoClock = nanoClock;
+  }
+
+  public TaskStats getStats(UUID userId) {
+    LocalDate today = LocalDate.now();
+    UserCounters counters;
+    synchronized (this) {
+      counters = counters(userId);
+      trim();
+    }
+    long startedBefore;
+    int pendingBefore;
+    synchronized (counters) {
+      if (counters.loaded) {
+        hits.incrementAndGet();
+        return counters.snapshot(today);
+      }
+      startedBefore = counters.started;
+      pendingBefore = counters.pending;
+    }
+    misses.incrementAndGet();
+
+    UserCounters seeded = new UserCounters(0);
+    for (Object[] row : taskRepository.countByUserGrouped(userId)) {
+      seeded.add(new Key((String) row[0], (String) row[1], (String) row[2], (LocalDate) row[3]), (Long) row[4]);
+    }
+
+    synchronized (counters) {
+      // Only trust the seed if no write for this user was in progress when the query started or
+      // began while it ran: a write that commits after the query read its rows is in neither
+      if (!counters.loaded && pendingBefore == 0 && counters.pending == 0 && counters.started == startedBefore) {
+        counters.seedFrom(seeded);
+      }
+      return counters.loaded ? counters.snapshot(today) : seeded.snapshot(today);
+    }
+  }
+
+  /** Starts tracking a write for the user; close the handle once the write has succeeded or failed. */
+  public Mutation begin(UUID userId) {
+    UserCounters counters;
+    // Counted while the map is locked, so the counters cannot be dropped before the write shows
+    synchronized (this) {
+      counters = counters(userId);
+      synchronized (counters) {
+        counters.pending++;
+        counters.started++;
+      }
+      trim();
+    }
+    return new Mutation(counters);
+  }
+
+  public synchronized CacheStats cacheStats() {
+    return new CacheStats(hits.get(), misses.get(), evictions, expirations, countersByUser.size(), maxUsers);
+  }
+
+  // Expired counters are replaced unless a write is in progress; the fresh ones reseed on next read
+  private UserCounters counters(UUID userId) {
+    UserCounters counters = countersByUser.get(userId);
+    if (counters != null && nanoClock.getAsLong() - counters.expiresAt > 0 && counters.idle()) {
+      countersByUser.remove(userId);
+      expirations++;
+      counters = null;
+    }
+    if (counters == null) {
+      counters = new UserCounters(nanoClock.getAsLong() + ttlNanos);
+      countersByUser.put(userId, counters);
+    }
+    return counters;
+  }
+
+  // Drops least recently used idle counters until the map fits; busy ones wait for a later call.
+  // The most recent entry is the one the caller is using, so it is never a candidate.
+  private void trim() {
+    Iterator<UserCounters> iterator = countersByUser.values().iterator();
+    for (int candidates = countersByUser.size() - 1; countersByUser.size() > maxUsers && candidates > 0; candidates--) {
+      if (iterator.next().idle()) {
+        iterator.remove();
+        evictions++;
+      }
+    }
+  }
+
+  public static final class Mutation implements AutoCloseable {
+
+    private final UserCounters counters;
+
+    private final List<Key> added = new ArrayList<>();
+
+    private final List<Key> removed = new ArrayList<>();
+
+    private boolean committed;
+
+    private Mutation(UserCounters counters) {
+      this.counters = counters;
+    }
+
+    public void added(TaskView task) {
+      added.add(Key.of(task));
+    }
+
+    public void removed(TaskView task) {
+      removed.add(Key.of(task));
+    }
+
+    /** Marks the write as durable; recorded changes are only applied to the counters if this was called. */
+    public void commit() {
+      committed = true;
+    }
+
+    @Override
+    public void close() {
+      synchronized (counters) {
+        counters.pending--;
+        if (committed && counters.loaded) {
+          removed.forEach(key -> counters.add(key, -1));
+          added.forEach(key -> counters.add(key, 1));
+        }
+      }
+    }
+  }
+
+  private record Key(String status, String priority, String category, LocalDate dueDate) {
+
+    static Key of(TaskView task) {
+      return new Key(task.status(), task.priority(), task.category(), task.dueDate());
+    }
+  }
+
+  private static final class UserCounters {
+
+    final long expiresAt;
+
+    boolean loaded;
+
+    // Writes in progress, and writes ever started; used to detect writes overlapping a seed query
+    int pending;
+
+    long started;
+
+    long total;
+
+    final Map<String, Long> byStatus = new HashMap<>();
+
+    final Map<String, Long> byPriority = new HashMap<>();
+
+    final Map<String, Long> byCategory = new HashMap<>();
+
+    // Open tasks by due date on or after rolledTo; earlier dates are folded into overdue
+    final TreeMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+
+    long overdue;
+
+    LocalDate rolledTo = LocalDate.MIN;
+
+    UserCounters(long expiresAt) {
+      this.expiresAt = expiresAt;
+    }
+
+    synchronized boolean idle() {
+      return pending == 0;
+    }
+
+    void add(Key key, long delta) {
+      total += delta;
+      increment(byStatus, key.status(), delta);
+      increment(byPriority, key.priority(), delta);
+      increment(byCategory, key.category(), delta);
+      if (key.dueDate() != null && !COMPLETED.equals(key.status())) {
+        if (key.dueDate().isBefore(rolledTo)) {
+          overdue += delta;
+        } else {
+          openByDueDate.merge(key.dueDate(), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+      }
+    }
+
+    void seedFrom(UserCounters seeded) {
+      total = seeded.total;
+      byStatus.putAll(seeded.byStatus);
+      byPriority.putAll(seeded.byPriority);
+      byCategory.putAll(seeded.byCategory);
+      openByDueDate.putAll(seeded.openByDueDate);
+      overdue = seeded.overdue;
+      rolledTo = seeded.rolledTo;
+      loaded = true;
+    }
+
+    TaskStats snapshot(LocalDate today) {
+      // Each due date is folded into overdue once, so this stays constant-time per day
+      while (!openByDueDate.isEmpty() && openByDueDate.firstKey().isBefore(today)) {
+        overdue += openByDueDate.pollFirstEntry().getValue();
+      }
+      if (rolledTo.isBefore(today)) {
+        rolledTo = today;
+      }
+      LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+      long dueThisWeek = 0;
+      for (long count : openByDueDate.subMap(today, true, endOfWeek, true).values()) {
+        dueThisWeek += count;
+      }
+      return new TaskStats(
+          total, Map.copyOf(byStatus), Map.copyOf(byPriority), Map.copyOf(byCategory), overdue, dueThisWeek);
+    }
+
+    private static void increment(Map<String, Long> counts, String value, long delta) {
+      counts.merge(value == null ? UNSPECIFIED : value, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+  }
+}
@@ -0,0 +1,365 @@
+package com.taskgenie.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskgenie.dto.TaskBatchRequest;
+import com.taskgenie.dto.TaskImportResult;
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.model.Task;
+import com.taskgenie.repository.TaskRepository;
+import com.taskgenie.util.CsvReader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streaming task import and export in CSV or NDJSON. Imports are parsed one row at a time and
+ * written in chunks through {@link TaskService#applyBatch}; exports are written as rows arrive from
+ * a database cursor. Neither direction holds the whole file or result set in memory.
+ */
+@Service
+public class TaskTransferService {
+
+  public static final String FORMAT_CSV = "csv";
+
+  public static final String FORMAT_NDJSON = "ndjson";
+
+  private static final String[] COLUMNS = {"id", "title", "description", "category", "priority", "status", "dueDate", "createdAt"};
+
+  private static final int MAX_REPORTED_ERRORS = 100;
+
+  private static final int MAX_SHORT_FIELD_LENGTH = 255;
+
+  // Same bound as a CSV field; longer NDJSON lines are rejected without being buffered whole
+  private static final int MAX_LINE_LENGTH = 1 << 20;
+
+  private static final int EXPORT_FLUSH_ROWS = 100;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final TaskService taskService;
+
+  private final TaskRepository taskRepository;
+
+  private final int chunkSize;
+
+  public TaskTransferService(
+      TaskService taskService,
+      TaskRepository taskRepository,
+      @Value("${task.import.chunk-size:500}") int chunkSize) {
+    // Each chunk is written with one applyBatch call, which refuses larger batches
+    if (chunkSize < 1 || chunkSize > TaskService.MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "task.import.chunk-size must be between 1 and " + TaskService.MAX_BATCH_SIZE + ", got " + chunkSize);
+    }
+    this.taskService = taskService;
+    this.taskRepository = taskRepository;
+    this.chunkSize = chunkSize;
+  }
+
+  public TaskImportResult importTasks(UUID userId, String format, InputStream in) {
+    ImportRun run = new ImportRun(userId);
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    try {
+      if (FORMAT_CSV.equals(format)) {
+        readCsv(reader, run);
+      } else if (FORMAT_NDJSON.equals(format)) {
+        readNdjson(reader, run);
+      } else {
+        throw new RuntimeException("Invalid format. Use 'csv' or 'ndjson'.");
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    run.flush();
+    return run.result();
+  }
+
+  @Transactional(readOnly = true)
+  public long exportTasks(UUID userId, String format, OutputStream out) {
+    if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+      throw new RuntimeException("Invalid format. Use 'csv' or 'ndjson'.");
+    }
+    long rows = 0;
+    try (Stream<TaskView> tasks = taskRepository.streamViewsByUserId(userId)) {
+      Iterator<TaskView> iterator = tasks.iterator();
+      if (FORMAT_CSV.equals(format)) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        while (iterator.hasNext()) {
+          String[] values = values(iterator.next());
+          for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+              writer.write(',');
+            }
+            writer.write(CsvReader.escape(values[i]));
+          }
+          writer.write("\r\n");
+          if (++rows % EXPORT_FLUSH_ROWS == 0) {
+            writer.flush();
+          }
+        }
+        writer.flush();
+      } else {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+          generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          generator.setRootValueSeparator(null);
+          while (iterator.hasNext()) {
+            String[] values = values(iterator.next());
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+              generator.writeStringField(COLUMNS[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++rows % EXPORT_FLUSH_ROWS == 0) {
+              generator.flush();
+            }
+          }
+        }
+      }
+    } catch (IOException ex) {
+      // Usually the client went away mid-download
+      throw new UncheckedIOException(ex);
+    }
+    return rows;
+  }
+
+  private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+    CsvReader csv = new CsvReader(reader);
+    List<String> header;
+    try {
+      header = csv.next();
+    } catch (RuntimeException ex) {
+      run.reject(1, ex.getMessage());
+      return;
+    }
+    if (header == null) {
+      return;
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+    }
+    if (!columns.containsKey("title")) {
+      run.reject(csv.getRecordLine(), "Header row must include a 'title' column.");
+      return;
+    }
+    while (true) {
+      List<String> record;
+      try {
+        record = csv.next();
+      } catch (RuntimeException ex) {
+        // Quoting is broken, so later row boundaries cannot be trusted either
+        run.reject(csv.getRecordLine(), ex.getMessage());
+        return;
+      }
+      if (record == null) {
+        return;
+      }
+      if (record.size() == 1 && record.get(0).isBlank()) {
+        continue;
+      }
+      Map<String, String> row = new HashMap<>();
+      columns.forEach((name, index) -> row.put(name, index < record.size() ? record.get(index) : null));
+      run.accept(csv.getRecordLine(), row);
+    }
+  }
+
+  private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+    long lineNumber = 0;
+    StringBuilder buffer = new StringBuilder();
+    while (readLine(reader, buffer)) {
+      lineNumber++;
+      if (buffer.length() > MAX_LINE_LENGTH) {
+        run.reject(lineNumber, "Line exceeds " + MAX_LINE_LENGTH + " characters.");
+        continue;
+      }
+      String line = buffer.toString();
+      if (line.isBlank()) {
+        continue;
+      }
+      JsonNode node;
+      try {
+        node = OBJECT_MAPPER.readTree(line);
+      } catch (IOException ex) {
+        run.reject(lineNumber, "Invalid JSON.");
+        continue;
+      }
+      if (!node.isObject()) {
+        run.reject(lineNumber, "Each line must be a JSON object.");
+        continue;
+      }
+      Map<String, String> row = new HashMap<>();
+      node.properties().forEach(field -> row.put(
+          field.getKey().toLowerCase(Locale.ROOT), field.getValue().isNull() ? null : field.getValue().asText()));
+      run.accept(lineNumber, row);
+    }
+  }
+
+  // Like BufferedReader.readLine, but keeps at most MAX_LINE_LENGTH + 1 characters of a line and
+  // skips the rest. Returns false at end of input.
+  private static boolean readLine(BufferedReader reader, StringBuilder line) throws IOException {
+    line.setLength(0);
+    int c = reader.read();
+    if (c == -1) {
+      return false;
+    }
+    boolean skipped = false;
+    while (c != -1 && c != '\n') {
+      if (line.length() <= MAX_LINE_LENGTH) {
+        line.append((char) c);
+      } else {
+        skipped = true;
+      }
+      c = reader.read();
+    }
+    int last = line.length() - 1;
+    if (!skipped && last >= 0 && line.charAt(last) == '\r') {
+      line.setLength(last);
+    }
+    return true;
+  }
+
+  private static Task toTask(Map<String, String> row) {
+    Task task = new Task();
+    String title = blankToNull(row.get("title"));
+    if (title == null) {
+      throw new RuntimeException("Title is required.");
+    }
+    task.setTitle(limited("title", title));
+    task.setDescription(blankToNull(row.get("description")));
+    task.setCategory(limited("category", blankToNull(row.get("category"))));
+    task.setPriority(limited("priority", blankToNull(row.get("priority"))));
+    task.setStatus(limited("status", blankToNull(row.get("status"))));
+    String dueDate = blankToNull(row.get("duedate"));
+    if (dueDate != null) {
+      try {
+        task.setDueDate(LocalDate.parse(dueDate));
+      } catch (DateTimeParseException ex) {
+        throw new RuntimeException("Invalid dueDate '" + dueDate + "'. Use YYYY-MM-DD.");
+      }
+    }
+    return task;
+  }
+
+  private static String limited(String field, String value) {
+    if (value != null && value.length() > MAX_SHORT_FIELD_LENGTH) {
+      throw new RuntimeException(field + " must be at most " + MAX_SHORT_FIELD_LENGTH + " characters.");
+    }
+    return value;
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.strip();
+  }
+
+  private static String[] values(TaskView task) {
+    return new String[] {
+        task.id().toString(),
+        task.title(),
+        task.description(),
+        task.category(),
+        task.priority(),
+        task.status(),
+        task.dueDate() == null ? null : task.dueDate().toString(),
+        task.createdAt() == null ? null : task.createdAt().toString()
+    };
+  }
+
+  /** Validated rows waiting for the next chunk write, plus the running totals. */
+  private final class ImportRun {
+
+    private final UUID userId;
+
+    private final List<Task> chunk = new ArrayList<>();
+
+    private final List<Long> chunkLines = new ArrayList<>();
+
+    private final List<TaskImportResult.RowError> errors = new ArrayList<>();
+
+    private long imported;
+
+    private long failed;
+
+    ImportRun(UUID userId) {
+      this.userId = userId;
+    }
+
+    void accept(long line, Map<String, String> row) {
+      Task task;
+      try {
+        task = toTask(row);
+      } catch (RuntimeException ex) {
+        reject(line, ex.getMessage());
+        return;
+      }
+      chunk.add(task);
+      chunkLines.add(line);
+      if (chunk.size() >= chunkSize) {
+        flush();
+      }
+    }
+
+    void reject(long line, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new TaskImportResult.RowError(line, message));
+      }
+    }
+
+    void flush() {
+      if (chunk.isEmpty()) {
+        return;
+      }
+      try {
+        imported += taskService.applyBatch(userId, new TaskBatchRequest(chunk, null, null)).created().size();
+      } catch (RuntimeException chunkFailure) {
+        // The chunk rolled back as a whole; retry row by row to find the rows the database rejects
+        for (int i = 0; i < chunk.size(); i++) {
+          Task task = chunk.get(i);
+          task.setId(null);
+          try {
+            taskService.createTask(userId, task);
+            imported++;
+          } catch (RuntimeException ex) {
+            reject(chunkLines.get(i), ex.getMessage());
+          }
+        }
+      }
+      chunk.clear();
+      chunkLines.clear();
+    }
+
+    TaskImportResult result() {
+      return new TaskImportResult(imported, failed, errors, failed > errors.size());
+    }
+  }
+}
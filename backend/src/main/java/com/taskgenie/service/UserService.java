@@ -1,14 +1,16 @@
 package com.taskgenie.service;
 
+import com.taskgenie.cache.UserCache;
 import com.taskgenie.model.User;
 import com.taskgenie.repository.UserRepository;
 import com.taskgenie.util.JwtUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class UserService {
@@ -17,31 +19,52 @@ public class UserService {
   private UserRepository userRepository;
 
   @Autowired
-  private PasswordEncoder passwordEncoder;
+  private UserCache userCache;
+
+  @Autowired
+  private PasswordHasher passwordHasher;
 
   @Autowired
   private JwtUtil jwtUtil;
 
   public User registerUser(User user) {
-    Optional<User> existingUser = userRepository.findByEmail(user.getEmail());
-    if (existingUser.isPresent()) {
+    if (userCache.findByEmail(user.getEmail()).isPresent()) {
       throw new RuntimeException("Email already exists!");
     }
     // Hash password
-    user.setPassword(passwordEncoder.encode(user.getPassword()));
-    return userRepository.save(user);
+    user.setPassword(passwordHasher.encode(user.getPassword()));
+    User saved = userRepository.save(user);
+    userCache.put(saved);
+    return saved;
   }
 
   public String loginUser(String email, String password) {
-    Optional<User> user = userRepository.findByEmail(email);
+    Optional<UserCache.CachedUser> user = userCache.findByEmail(email);
     if (user.isEmpty()) {
       throw new RuntimeException("User not found!");
     }
-    if (!passwordEncoder.matches(password, user.get().getPassword())) {
+    if (!passwordHasher.matches(password, user.get().passwordHash())) {
       throw new RuntimeException("Incorrect password!");
     }
+    if (passwordHasher.needsRehash(user.get().passwordHash())) {
+      rehash(user.get().id(), password);
+    }
     // Generate JWT
-    return jwtUtil.generateToken(user.get().getId().toString(), user.get().getEmail());
+    return jwtUtil.generateToken(user.get().id().toString(), user.get().email());
+  }
+
+  // Best effort: if the hashing pool is saturated the old hash still works and the next login retries
+  private void rehash(UUID userId, String password) {
+    try {
+      String upgraded = passwordHasher.encode(password);
+      userRepository.findById(userId).ifPresent(user -> {
+        user.setPassword(upgraded);
+        userCache.put(userRepository.save(user));
+        passwordHasher.recordRehash();
+      });
+    } catch (RejectedExecutionException ex) {
+      // Keep the login fast; the upgrade can wait
+    }
   }
 }
 
@@ -0,0 +1,155 @@
+package com.taskgenie.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consecutive-failure circuit breaker for {@link Mono} and {@link Flux} calls. After
+ * {@code failureThreshold} failures in a row the circuit opens and calls fail immediately with
+ * {@link CircuitOpenException}; once {@code openDuration} has passed a single trial call is let
+ * through, and its outcome closes the circuit or opens it again.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String name;
+
+  private final int failureThreshold;
+
+  private final long openDurationNanos;
+
+  // Errors that say nothing about the upstream's health (e.g. a 400) count as successes
+  private final Predicate<Throwable> isFailure;
+
+  private final LongSupplier nanoClock;
+
+  private State state = State.CLOSED;
+
+  private int consecutiveFailures;
+
+  private long openedAt;
+
+  private boolean trialInFlight;
+
+  private final AtomicLong opened = new AtomicLong();
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Predicate<Throwable> isFailure) {
+    this(name, failureThreshold, openDuration, isFailure, System::nanoTime);
+  }
+
+  CircuitBreaker(
+      String name, int failureThreshold, Duration openDuration, Predicate<Throwable> isFailure, LongSupplier nanoClock) {
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.openDurationNanos = openDuration.toNanos();
+    this.isFailure = isFailure;
+    this.nanoClock = nanoClock;
+  }
+
+  public <T> Mono<T> run(Mono<T> call) {
+    return run(call.flux()).singleOrEmpty();
+  }
+
+  public <T> Flux<T> run(Flux<T> call) {
+    return Flux.defer(() -> {
+      Boolean trial = tryAcquire();
+      if (trial == null) {
+        rejected.incrementAndGet();
+        return Flux.error(new CircuitOpenException(name));
+      }
+      return call
+          .doOnComplete(this::onSuccess)
+          .doOnError(error -> {
+            if (isFailure.test(error)) {
+              onFailure();
+            } else {
+              onSuccess();
+            }
+          })
+          .doOnCancel(() -> {
+            if (trial) {
+              releaseTrial();
+            }
+          });
+    });
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  /** Whether a call made now would be let through, without taking the half-open trial slot. */
+  public synchronized boolean isCallPermitted() {
+    if (state == State.OPEN) {
+      return nanoClock.getAsLong() - openedAt >= openDurationNanos;
+    }
+    return state == State.CLOSED || !trialInFlight;
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    return Map.of(
+        "state", state.name(),
+        "consecutiveFailures", consecutiveFailures,
+        "opened", opened.get(),
+        "rejected", rejected.get());
+  }
+
+  // Returns whether the caller holds the half-open trial slot, or null if the call must be rejected
+  private synchronized Boolean tryAcquire() {
+    if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+      state = State.HALF_OPEN;
+    }
+    if (state == State.CLOSED) {
+      return false;
+    }
+    if (state == State.HALF_OPEN && !trialInFlight) {
+      trialInFlight = true;
+      return true;
+    }
+    return null;
+  }
+
+  private synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    if (state == State.HALF_OPEN) {
+      state = State.CLOSED;
+      trialInFlight = false;
+    }
+  }
+
+  private synchronized void onFailure() {
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+      state = State.OPEN;
+      openedAt = nanoClock.getAsLong();
+      trialInFlight = false;
+      opened.incrementAndGet();
+    }
+  }
+
+  private synchronized void releaseTrial() {
+    if (state == State.HALF_OPEN) {
+      trialInFlight = false;
+    }
+  }
+
+  /** Thrown instead of making the call while the circuit is open. */
+  public static class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+      super("Circuit " + name + " is open");
+    }
+  }
+}
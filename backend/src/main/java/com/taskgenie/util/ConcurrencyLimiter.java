@@ -0,0 +1,134 @@
+package com.taskgenie.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Non-blocking cap on how many {@link Mono} or {@link Flux} calls run at once. Calls over the limit
+ * wait in a bounded queue without holding a thread; once the queue is full, new calls fail fast
+ * with {@link RejectedExecutionException} so callers can shed load.
+ */
+public class ConcurrencyLimiter {
+
+  private final Semaphore permits;
+
+  private final int maxConcurrent;
+
+  private final int maxQueued;
+
+  private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger queued = new AtomicInteger();
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  public ConcurrencyLimiter(int maxConcurrent, int maxQueued) {
+    this.permits = new Semaphore(maxConcurrent);
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+  }
+
+  public <T> Mono<T> run(Mono<T> call) {
+    return limit(call).singleOrEmpty();
+  }
+
+  public <T> Flux<T> run(Flux<T> call) {
+    return limit(call);
+  }
+
+  private <T> Flux<T> limit(Publisher<T> call) {
+    return Flux.defer(() -> {
+      if (permits.tryAcquire()) {
+        return Flux.from(call).doFinally(signal -> release());
+      }
+      if (queued.incrementAndGet() > maxQueued) {
+        queued.decrementAndGet();
+        rejected.incrementAndGet();
+        return Flux.error(new RejectedExecutionException(
+            "Concurrency limit of " + maxConcurrent + " reached and " + maxQueued + " calls already waiting"));
+      }
+      Waiter waiter = new Waiter();
+      waiters.add(waiter);
+      // A permit may have been released between tryAcquire and enqueueing
+      drain();
+      return waiter.granted.asMono()
+          .thenMany(Flux.defer(() -> waiter.start() ? Flux.from(call).doFinally(signal -> release()) : Flux.<T>empty()))
+          .doOnCancel(waiter::cancel);
+    });
+  }
+
+  public int getActiveCount() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  public int getQueuedCount() {
+    return queued.get();
+  }
+
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  private void release() {
+    permits.release();
+    drain();
+  }
+
+  private void drain() {
+    while (!waiters.isEmpty() && permits.tryAcquire()) {
+      Waiter waiter = waiters.poll();
+      if (waiter == null) {
+        permits.release();
+        return;
+      }
+      queued.decrementAndGet();
+      if (!waiter.grant()) {
+        // The waiter gave up before its turn; pass the permit on
+        permits.release();
+      }
+    }
+  }
+
+  private final class Waiter {
+
+    private static final int WAITING = 0;
+
+    private static final int GRANTED = 1;
+
+    private static final int RUNNING = 2;
+
+    private static final int CANCELLED = 3;
+
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+
+    private final Sinks.Empty<Void> granted = Sinks.empty();
+
+    boolean grant() {
+      if (!state.compareAndSet(WAITING, GRANTED)) {
+        return false;
+      }
+      granted.tryEmitEmpty();
+      return true;
+    }
+
+    boolean start() {
+      return state.compareAndSet(GRANTED, RUNNING);
+    }
+
+    void cancel() {
+      if (state.compareAndSet(GRANTED, CANCELLED)) {
+        // Granted a permit but never started the call
+        release();
+      } else {
+        state.compareAndSet(WAITING, CANCELLED);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.taskgenie.util;
+
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Collects Reactor Netty pool gauges (one pool per remote address) without needing Micrometer, so
+ * they can be reported alongside the other counters.
+ */
+public class ConnectionPoolStats implements ConnectionProvider.MeterRegistrar {
+
+  private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+  @Override
+  public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+    pools.put(poolName + "@" + remoteAddress, metrics);
+  }
+
+  @Override
+  public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+    pools.remove(poolName + "@" + remoteAddress);
+  }
+
+  public Map<String, Map<String, Integer>> snapshot() {
+    Map<String, Map<String, Integer>> snapshot = new LinkedHashMap<>();
+    pools.forEach((pool, metrics) -> snapshot.put(pool, Map.of(
+        "active", metrics.acquiredSize(),
+        "idle", metrics.idleSize(),
+        "allocated", metrics.allocatedSize(),
+        "pending", metrics.pendingAcquireSize(),
+        "maxConnections", metrics.maxAllocatedSize())));
+    return snapshot;
+  }
+}
@@ -0,0 +1,119 @@
+package com.taskgenie.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: returns one record at a time, so input of any size is parsed with
+ * memory bounded by the longest record. Handles quoted fields with embedded commas, doubled quotes
+ * and line breaks, and both LF and CRLF line endings.
+ */
+public class CsvReader {
+
+  private static final int MAX_FIELD_LENGTH = 1 << 20;
+
+  private final Reader reader;
+
+  private long line = 1;
+
+  private long recordLine;
+
+  private boolean finished;
+
+  public CsvReader(Reader reader) {
+    this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+  }
+
+  /** Returns the next record, or null at end of input. */
+  public List<String> next() throws IOException {
+    if (finished) {
+      return null;
+    }
+    recordLine = line;
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean wasQuoted = false;
+    boolean empty = true;
+    while (true) {
+      int c = reader.read();
+      if (c == -1) {
+        finished = true;
+        if (quoted) {
+          throw new RuntimeException("Malformed CSV: unterminated quoted field starting on line " + recordLine + ".");
+        }
+        if (empty) {
+          return null;
+        }
+        fields.add(field.toString());
+        return fields;
+      }
+      empty = false;
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          int following = reader.read();
+          if (following == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            if (following != -1) {
+              reader.reset();
+            }
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          append(field, c);
+        }
+      } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+        quoted = true;
+        wasQuoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+        wasQuoted = false;
+      } else if (c == '\r' || c == '\n') {
+        if (c == '\r') {
+          reader.mark(1);
+          int following = reader.read();
+          if (following != '\n' && following != -1) {
+            reader.reset();
+          }
+        }
+        line++;
+        fields.add(field.toString());
+        return fields;
+      } else {
+        append(field, c);
+      }
+    }
+  }
+
+  /** Line on which the record last returned by {@link #next()} started, counting from 1. */
+  public long getRecordLine() {
+    return recordLine;
+  }
+
+  private void append(StringBuilder field, int c) {
+    if (field.length() >= MAX_FIELD_LENGTH) {
+      throw new RuntimeException("Malformed CSV: field on line " + recordLine + " exceeds " + MAX_FIELD_LENGTH + " characters.");
+    }
+    field.append((char) c);
+  }
+
+  /** Quotes a value for CSV output when it contains a delimiter, quote or line break. */
+  public static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
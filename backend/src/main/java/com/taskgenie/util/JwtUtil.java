@@ -1,8 +1,9 @@
 package com.taskgenie.util;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
@@ -11,23 +12,42 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class JwtUtil {
 
-  @Value("${jwt.secret}")
-  private String jwtSecret;
+  // Minimum time between full sweeps of expired tokens when the cache is full
+  private static final long SWEEP_INTERVAL_MS = 1000;
+
+  private final long jwtExpirationMs;
+
+  private final int cacheMaxSize;
+
+  private final Key signingKey;
+
+  private final JwtParser jwtParser;
 
-  @Value("${jwt.expiration-ms}")
-  private long jwtExpirationMs;
+  // Tokens that already passed signature verification, keyed by the compact token string
+  private final ConcurrentHashMap<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
 
-  private Key getSigningKey() {
+  private final AtomicLong nextSweepAt = new AtomicLong();
+
+  public JwtUtil(
+      @Value("${jwt.secret}") String jwtSecret,
+      @Value("${jwt.expiration-ms}") long jwtExpirationMs,
+      @Value("${jwt.cache.max-size:10000}") int cacheMaxSize) {
     // Ensure secret is at least 32 bytes (256 bits) for HS256
     byte[] keyBytes = jwtSecret.getBytes();
     if (keyBytes.length < 32) {
       throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
     }
-    return Keys.hmacShaKeyFor(keyBytes);
+    this.jwtExpirationMs = jwtExpirationMs;
+    this.cacheMaxSize = cacheMaxSize;
+    this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+    // The built parser is immutable and thread-safe, so one instance serves every request
+    this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
   }
 
   public String generateToken(String userId, String email) {
@@ -38,29 +58,70 @@ public class JwtUtil {
         .claim("email", email)
         .setIssuedAt(now)
         .setExpiration(exp)
-        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
+  /**
+   * Verifies the token and returns its claims, or {@code null} if the token is invalid or expired.
+   * Verified tokens are cached until they expire, so repeat requests skip the HMAC check.
+   */
+  public Claims parseClaims(String token) {
+    long now = System.currentTimeMillis();
+    Claims cached = verifiedTokens.get(token);
+    if (cached != null) {
+      if (cached.getExpiration().getTime() > now) {
+        return cached;
+      }
+      verifiedTokens.remove(token, cached);
+      return null;
+    }
+
+    Claims claims;
+    try {
+      claims = jwtParser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException ex) {
+      return null;
+    }
+    cacheVerified(token, claims, now);
+    return claims;
+  }
+
   public String getUserId(String token) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    Claims claims = parseClaims(token);
+    if (claims == null) {
+      throw new JwtException("Invalid or expired JWT token");
+    }
     return claims.getSubject();
   }
 
   public boolean validateToken(String token) {
-    try {
-      Jwts.parserBuilder()
-          .setSigningKey(getSigningKey())
-          .build()
-          .parseClaimsJws(token);
-      return true;
-    } catch (JwtException ex) {
-      return false;
+    return parseClaims(token) != null;
+  }
+
+  public int getCacheSize() {
+    return verifiedTokens.size();
+  }
+
+  private void cacheVerified(String token, Claims claims, long now) {
+    // Tokens without an expiry are never cached because nothing would bound their lifetime
+    if (cacheMaxSize <= 0 || claims.getExpiration() == null) {
+      return;
+    }
+    if (verifiedTokens.size() >= cacheMaxSize) {
+      evictExpired(now);
+      if (verifiedTokens.size() >= cacheMaxSize) {
+        return;
+      }
     }
+    verifiedTokens.put(token, claims);
   }
-}
 
+  private void evictExpired(long now) {
+    long sweepAt = nextSweepAt.get();
+    if (now < sweepAt || !nextSweepAt.compareAndSet(sweepAt, now + SWEEP_INTERVAL_MS)) {
+      return;
+    }
+    verifiedTokens.values().removeIf(claims -> claims.getExpiration().getTime() <= now);
+  }
+}
@@ -0,0 +1,65 @@
+package com.taskgenie.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets. Percentiles report the upper bound of
+ * the bucket they fall in (capped at the maximum seen), which is precise enough to tell 50 ms from 5 s.
+ */
+public class LatencyHistogram {
+
+  private static final long[] BUCKET_BOUNDS_MS = {
+      5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, Long.MAX_VALUE};
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length);
+
+  private final AtomicLong count = new AtomicLong();
+
+  private final AtomicLong totalNanos = new AtomicLong();
+
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+    int bucket = 0;
+    while (millis > BUCKET_BOUNDS_MS[bucket]) {
+      bucket++;
+    }
+    buckets.incrementAndGet(bucket);
+    count.incrementAndGet();
+    totalNanos.addAndGet(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  public Map<String, Object> snapshot() {
+    long total = count.get();
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("count", total);
+    snapshot.put("meanMs", total == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / total));
+    snapshot.put("p50Ms", percentile(total, 0.50));
+    snapshot.put("p95Ms", percentile(total, 0.95));
+    snapshot.put("p99Ms", percentile(total, 0.99));
+    snapshot.put("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+    return snapshot;
+  }
+
+  private long percentile(long total, double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * quantile);
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKET_BOUNDS_MS.length; bucket++) {
+      seen += buckets.get(bucket);
+      if (seen >= rank) {
+        // Never report more than was observed, e.g. for the open-ended last bucket
+        return Math.min(BUCKET_BOUNDS_MS[bucket], TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+      }
+    }
+    return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+  }
+}
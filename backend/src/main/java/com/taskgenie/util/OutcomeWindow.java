@@ -0,0 +1,88 @@
+package com.taskgenie.util;
+
+import java.util.Arrays;
+
+/**
+ * The last {@code size} outcomes of calls to one backend: latencies of successes and a count of
+ * failures. Old outcomes fall out as new ones arrive, so the numbers follow the backend's recent health.
+ */
+public class OutcomeWindow {
+
+  private static final long FAILURE = -1;
+
+  private final long[] outcomes;
+
+  private int next;
+
+  private int size;
+
+  private int failures;
+
+  private long latencySum;
+
+  public OutcomeWindow(int size) {
+    this.outcomes = new long[Math.max(1, size)];
+  }
+
+  public synchronized void recordSuccess(long latencyNanos) {
+    add(Math.max(0, latencyNanos));
+  }
+
+  public synchronized void recordFailure() {
+    add(FAILURE);
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized int successes() {
+    return size - failures;
+  }
+
+  public synchronized double errorRate() {
+    return size == 0 ? 0 : (double) failures / size;
+  }
+
+  /** Mean latency of the successes, or 0 if there are none. */
+  public synchronized long meanNanos() {
+    int successes = size - failures;
+    return successes == 0 ? 0 : latencySum / successes;
+  }
+
+  /** Latency at the given quantile of the successes, or -1 if there are none. */
+  public synchronized long percentileNanos(double quantile) {
+    long[] latencies = new long[size - failures];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (outcomes[i] != FAILURE) {
+        latencies[count++] = outcomes[i];
+      }
+    }
+    if (count == 0) {
+      return -1;
+    }
+    Arrays.sort(latencies);
+    return latencies[Math.min(count - 1, (int) Math.ceil(count * quantile) - 1)];
+  }
+
+  private void add(long outcome) {
+    if (size == outcomes.length) {
+      long evicted = outcomes[next];
+      if (evicted == FAILURE) {
+        failures--;
+      } else {
+        latencySum -= evicted;
+      }
+    } else {
+      size++;
+    }
+    outcomes[next] = outcome;
+    next = (next + 1) % outcomes.length;
+    if (outcome == FAILURE) {
+      failures++;
+    } else {
+      latencySum += outcome;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.taskgenie.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by caller, for rate limiting. Buckets live in a fixed number of independently
+ * locked stripes, each an access-ordered map, so contention is spread out and lookups stay O(1). The
+ * table is bounded: a stripe drops its least recently used bucket when full, and buckets idle for
+ * longer than {@code idleTimeout} are dropped as new ones are added. A bucket idle that long has
+ * refilled anyway, so dropping it changes nothing as long as the timeout exceeds every refill time.
+ */
+public class RateLimiter {
+
+  /** Burst size and steady rate of one bucket. */
+  public record Limit(int capacity, double refillPerSecond) {
+  }
+
+  private final Stripe[] stripes;
+
+  private final int stripeMask;
+
+  private final long idleNanos;
+
+  private final LongSupplier nanoClock;
+
+  private final LongAdder allowed = new LongAdder();
+
+  private final LongAdder limited = new LongAdder();
+
+  private final LongAdder evicted = new LongAdder();
+
+  public RateLimiter(int stripes, int maxBuckets, Duration idleTimeout) {
+    this(stripes, maxBuckets, idleTimeout, System::nanoTime);
+  }
+
+  RateLimiter(int stripes, int maxBuckets, Duration idleTimeout, LongSupplier nanoClock) {
+    int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      this.stripes[i] = new Stripe(Math.max(1, maxBuckets / count));
+    }
+    this.stripeMask = count - 1;
+    this.idleNanos = idleTimeout.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Takes a token from the key's bucket. Returns 0 if the call may go ahead, otherwise the nanoseconds
+   * until the bucket will hold a token again.
+   */
+  public long tryAcquire(String key, Limit limit) {
+    long now = nanoClock.getAsLong();
+    int hash = key.hashCode();
+    Stripe stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    long waitNanos;
+    synchronized (stripe) {
+      Bucket bucket = stripe.get(key);
+      if (bucket == null) {
+        stripe.evictIdle(now);
+        bucket = new Bucket(limit.capacity(), now);
+        stripe.put(key, bucket);
+      }
+      waitNanos = bucket.take(limit, now);
+    }
+    (waitNanos == 0 ? allowed : limited).increment();
+    return waitNanos;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+
+  public Map<String, Long> getStats() {
+    return Map.of(
+        "buckets", (long) size(),
+        "allowed", allowed.sum(),
+        "limited", limited.sum(),
+        "evicted", evicted.sum());
+  }
+
+  private static final class Bucket {
+
+    private double tokens;
+
+    private long updatedAt;
+
+    Bucket(double tokens, long updatedAt) {
+      this.tokens = tokens;
+      this.updatedAt = updatedAt;
+    }
+
+    long take(Limit limit, long now) {
+      tokens = Math.min(limit.capacity(), tokens + (now - updatedAt) / 1e9 * limit.refillPerSecond());
+      updatedAt = now;
+      if (tokens >= 1) {
+        tokens--;
+        return 0;
+      }
+      return Math.max(1, (long) Math.ceil((1 - tokens) / limit.refillPerSecond() * 1e9));
+    }
+  }
+
+  private final class Stripe extends LinkedHashMap<String, Bucket> {
+
+    private final int maxBuckets;
+
+    Stripe(int maxBuckets) {
+      super(16, 0.75f, true);
+      this.maxBuckets = maxBuckets;
+    }
+
+    // Least recently used first, so the scan stops at the first bucket still in use
+    void evictIdle(long now) {
+      Iterator<Bucket> buckets = values().iterator();
+      while (buckets.hasNext() && now - buckets.next().updatedAt >= idleNanos) {
+        buckets.remove();
+        evicted.increment();
+      }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+      if (size() > maxBuckets) {
+        evicted.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.taskgenie.util;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps retries at a fraction of recent traffic so a failing upstream does not see its load multiplied.
+ * Each call deposits {@code ratio} of a retry and each retry withdraws one; a small per-second
+ * allowance keeps retries possible when traffic is low.
+ */
+public class RetryBudget {
+
+  private final double ratio;
+
+  private final double minPerSecond;
+
+  // Roughly the retries earned by the last hundred calls plus one second of allowance
+  private final double capacity;
+
+  private final LongSupplier nanoClock;
+
+  private double balance;
+
+  private long lastRefill;
+
+  private long retries;
+
+  private long exhausted;
+
+  public RetryBudget(double ratio, double minPerSecond) {
+    this(ratio, minPerSecond, System::nanoTime);
+  }
+
+  RetryBudget(double ratio, double minPerSecond, LongSupplier nanoClock) {
+    this.ratio = ratio;
+    this.minPerSecond = minPerSecond;
+    this.capacity = Math.max(1, ratio * 100 + minPerSecond);
+    this.nanoClock = nanoClock;
+    this.balance = capacity;
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  public synchronized void recordCall() {
+    balance = Math.min(capacity, balance + ratio);
+  }
+
+  /** Withdraws one retry if the budget allows it. */
+  public synchronized boolean tryRetry() {
+    long now = nanoClock.getAsLong();
+    balance = Math.min(capacity, balance + (now - lastRefill) / 1e9 * minPerSecond);
+    lastRefill = now;
+    if (balance < 1) {
+      exhausted++;
+      return false;
+    }
+    balance--;
+    retries++;
+    return true;
+  }
+
+  public synchronized Map<String, Long> getStats() {
+    return Map.of(
+        "retries", retries,
+        "exhausted", exhausted,
+        "available", (long) balance);
+  }
+}
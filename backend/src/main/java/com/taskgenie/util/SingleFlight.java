@@ -0,0 +1,52 @@
+package com.taskgenie.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls that share a key into one execution. The first caller runs the call;
+ * callers arriving while it is in flight receive the same future, including its failure. Nothing is
+ * remembered once the call completes, so a failed call is retried by the next caller.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong coalesced = new AtomicLong();
+
+  public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+    CompletableFuture<V> promise = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+    if (existing != null) {
+      coalesced.incrementAndGet();
+      return existing;
+    }
+
+    CompletableFuture<V> result;
+    try {
+      result = call.get();
+    } catch (Throwable ex) {
+      result = CompletableFuture.failedFuture(ex);
+    }
+    result.whenComplete((value, error) -> {
+      // Unregister before completing so a caller woken by this result never joins a finished call
+      inFlight.remove(key, promise);
+      if (error != null) {
+        promise.completeExceptionally(error);
+      } else {
+        promise.complete(value);
+      }
+    });
+    return promise;
+  }
+
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+}
@@ -0,0 +1,78 @@
+package com.taskgenie.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.taskgenie.dto.TaskView;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+class TaskListCacheTest {
+
+  private static final UUID USER_ID = UUID.randomUUID();
+
+  private final TaskListCache cache = new TaskListCache(JsonMapper.builder().build(), 100, 60_000);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void servesTheSamePayloadUntilATaskChanges() {
+    String etag = cache.etag(USER_ID);
+    TaskListCache.Payload first = cache.get(USER_ID, loader(task("Write report")));
+
+    assertEquals(etag, first.etag());
+    assertSame(first, cache.get(USER_ID, loader(task("Write report"))));
+    assertEquals(1, loads.get());
+    assertEquals(etag, cache.etag(USER_ID));
+
+    cache.taskSaved(USER_ID, task("Book flights"));
+
+    assertNotEquals(etag, cache.etag(USER_ID));
+    TaskListCache.Payload second = cache.get(USER_ID, loader(task("Book flights")));
+    assertEquals(cache.etag(USER_ID), second.etag());
+    assertEquals(2, loads.get());
+    assertEquals(1L, cache.stats().hits());
+  }
+
+  @Test
+  void doesNotKeepAListLoadedWhileATaskChanged() {
+    String etag = cache.etag(USER_ID);
+    TaskListCache.Payload stale = cache.get(USER_ID, () -> {
+      cache.taskDeleted(USER_ID, UUID.randomUUID());
+      return List.of(task("Deleted meanwhile"));
+    });
+
+    assertEquals(etag, stale.etag());
+    TaskListCache.Payload fresh = cache.get(USER_ID, loader());
+    assertNotEquals(etag, fresh.etag());
+    assertEquals("[]", new String(fresh.json(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void neverReusesAnETagAfterEviction() {
+    TaskListCache small = new TaskListCache(JsonMapper.builder().build(), 1, 60_000);
+    String etag = small.etag(USER_ID);
+    small.etag(UUID.randomUUID());
+
+    assertEquals(1L, small.stats().evictions());
+    assertNotEquals(etag, small.etag(USER_ID));
+  }
+
+  private Supplier<List<TaskView>> loader(TaskView... tasks) {
+    return () -> {
+      loads.incrementAndGet();
+      return List.of(tasks);
+    };
+  }
+
+  private static TaskView task(String title) {
+    return new TaskView(UUID.randomUUID(), title, null, "Work", "Medium", "Pending", LocalDate.of(2026, 10, 20), null);
+  }
+}
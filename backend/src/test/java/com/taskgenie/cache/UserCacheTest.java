@@ -0,0 +1,61 @@
+package com.taskgenie.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.taskgenie.model.User;
+import com.taskgenie.repository.UserRepository;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class UserCacheTest {
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+
+  @Test
+  void loadsOnceAndServesBothKeysFromCache() {
+    User user = user("a@x.io", "hash-1");
+    when(userRepository.findByEmail("a@x.io")).thenReturn(Optional.of(user));
+    UserCache cache = new UserCache(userRepository, 10, 60_000);
+
+    assertEquals("hash-1", cache.findByEmail("a@x.io").orElseThrow().passwordHash());
+    assertTrue(cache.exists(user.getId()));
+    assertEquals(user.getId(), cache.findByEmail("a@x.io").orElseThrow().id());
+
+    verify(userRepository, times(1)).findByEmail("a@x.io");
+    verify(userRepository, times(0)).findById(user.getId());
+    assertEquals(2, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  void putReplacesSnapshotAndEvictionDropsEmailIndex() {
+    User first = user("a@x.io", "old");
+    User second = user("b@x.io", "hash");
+    UserCache cache = new UserCache(userRepository, 1, 60_000);
+    cache.put(first);
+    first.setPassword("new");
+    cache.put(first);
+    assertEquals("new", cache.findByEmail("a@x.io").orElseThrow().passwordHash());
+
+    cache.put(second);
+
+    assertFalse(cache.findByEmail("a@x.io").isPresent());
+    verify(userRepository).findByEmail("a@x.io");
+    assertEquals(1, cache.stats().evictions());
+  }
+
+  private static User user(String email, String passwordHash) {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    user.setEmail(email);
+    user.setPassword(passwordHash);
+    return user;
+  }
+}
@@ -0,0 +1,61 @@
+package com.taskgenie.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.taskgenie.config.SecurityConfig;
+import com.taskgenie.service.AiLogRetentionService;
+import com.taskgenie.service.AiLogService;
+import com.taskgenie.service.AiService;
+import com.taskgenie.service.RuleBasedTaskParser;
+import com.taskgenie.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(AiController.class)
+@Import({SecurityConfig.class, AiControllerSecurityTest.Metrics.class})
+class AiControllerSecurityTest {
+
+  @TestConfiguration
+  static class Metrics {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private JwtUtil jwtUtil;
+
+  @MockitoBean
+  private AiService aiService;
+
+  @MockitoBean
+  private AiLogService aiLogService;
+
+  @MockitoBean
+  private AiLogRetentionService aiLogRetentionService;
+
+  @MockitoBean
+  private RuleBasedTaskParser ruleBasedTaskParser;
+
+  @Test
+  void ownLogEndpointsRejectAnonymousCallsWith401() throws Exception {
+    mockMvc.perform(get("/api/ai/logs")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/ai/logs/export")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/ai/logs/archives")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/ai/logs/archives/2026-01")).andExpect(status().isUnauthorized());
+  }
+}
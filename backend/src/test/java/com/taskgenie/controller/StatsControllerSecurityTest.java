@@ -0,0 +1,105 @@
+package com.taskgenie.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.taskgenie.cache.TaskListCache;
+import com.taskgenie.cache.UserCache;
+import com.taskgenie.config.SecurityConfig;
+import com.taskgenie.service.AiLogRetentionService;
+import com.taskgenie.service.AiLogWriter;
+import com.taskgenie.service.AiService;
+import com.taskgenie.service.PasswordHasher;
+import com.taskgenie.service.RuleBasedTaskParser;
+import com.taskgenie.service.SearchService;
+import com.taskgenie.service.TaskStatsService;
+import com.taskgenie.util.ConnectionPoolStats;
+import com.taskgenie.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = StatsController.class, properties = "security.operator-ids=operator-id")
+@Import({SecurityConfig.class, StatsControllerSecurityTest.Metrics.class})
+class StatsControllerSecurityTest {
+
+  @TestConfiguration
+  static class Metrics {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private JwtUtil jwtUtil;
+
+  @MockitoBean
+  private AiService aiService;
+
+  @MockitoBean
+  private AiLogWriter aiLogWriter;
+
+  @MockitoBean
+  private SearchService searchService;
+
+  @MockitoBean
+  private AiLogRetentionService aiLogRetentionService;
+
+  @MockitoBean
+  private RuleBasedTaskParser ruleBasedTaskParser;
+
+  @MockitoBean
+  private ConnectionPoolStats connectionPoolStats;
+
+  @MockitoBean
+  private PasswordHasher passwordHasher;
+
+  @MockitoBean
+  private UserCache userCache;
+
+  @MockitoBean
+  private TaskListCache taskListCache;
+
+  @MockitoBean
+  private TaskStatsService taskStatsService;
+
+  @Test
+  void onlyOperatorsSeeInternalStats() throws Exception {
+    token("user-token", "user-id");
+    token("operator-token", "operator-id");
+
+    mockMvc.perform(get("/api/stats")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/stats").header("Authorization", "Bearer user-token")).andExpect(status().isForbidden());
+    mockMvc.perform(get("/api/stats").header("Authorization", "Bearer operator-token")).andExpect(status().isOk());
+  }
+
+  @Test
+  void prometheusScrapeNeedsAnOperatorToken() throws Exception {
+    token("user-token", "user-id");
+
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer user-token"))
+        .andExpect(status().isForbidden());
+  }
+
+  private void token(String token, String subject) {
+    Claims claims = mock(Claims.class);
+    when(claims.getSubject()).thenReturn(subject);
+    when(jwtUtil.parseClaims(token)).thenReturn(claims);
+  }
+}
@@ -0,0 +1,46 @@
+package com.taskgenie.prompt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ChatResponseReaderTest {
+
+  @Test
+  void readsFirstChoiceSkippingOtherFields() {
+    String json = """
+        {"id":"x","meta":{"choices":[1]},"choices":[{"index":0,"logprobs":{"a":[1,2]},\
+        "message":{"role":"assistant","content":"Line \\"one\\"\\nLine two"}},\
+        {"message":{"content":"second"}}],"usage":{"total_tokens":3}}""";
+
+    assertEquals("Line \"one\"\nLine two", ChatResponseReader.content(json));
+    assertEquals(" the", ChatResponseReader.delta("{\"choices\":[{\"delta\":{\"content\":\" the\"}}]}"));
+  }
+
+  @Test
+  void readsUsageAtTopLevelOrUnderGroqExtension() {
+    assertEquals(new ChatResponseReader.Usage(400, 58), ChatResponseReader.usage(
+        "{\"choices\":[{\"message\":{\"content\":\"x\"}}],\"usage\":{\"prompt_tokens\":400,\"completion_tokens\":58,\"total_tokens\":458}}"));
+    assertEquals(new ChatResponseReader.Usage(7, 3), ChatResponseReader.usage(
+        "{\"choices\":[{\"delta\":{}}],\"x_groq\":{\"id\":\"req\",\"usage\":{\"prompt_tokens\":7,\"completion_tokens\":3}}}"));
+    assertNull(ChatResponseReader.usage("{\"choices\":[{\"delta\":{\"content\":\"usage\"}}]}"));
+  }
+
+  @Test
+  void returnsNullWithoutContent() {
+    assertNull(ChatResponseReader.content("{\"choices\":[]}"));
+    assertNull(ChatResponseReader.content("{\"choices\":[{\"message\":{\"content\":null}}]}"));
+    assertNull(ChatResponseReader.delta("{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}"));
+    assertNull(ChatResponseReader.content("not json"));
+  }
+
+  // Same results as the readTree code this replaced: asText() for completions, text-only deltas
+  @Test
+  void matchesTreeParsingForNonStringContent() {
+    assertEquals("42", ChatResponseReader.content("{\"choices\":[{\"message\":{\"content\":42}}]}"));
+    assertEquals("", ChatResponseReader.content("{\"choices\":[{\"message\":{\"content\":{\"a\":1}}}]}"));
+    assertNull(ChatResponseReader.delta("{\"choices\":[{\"delta\":{\"content\":42}}]}"));
+    assertNull(ChatResponseReader.delta("{\"choices\":[{\"delta\":{\"content\":[\"a\"]}}]}"));
+  }
+}
@@ -0,0 +1,44 @@
+package com.taskgenie.prompt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PromptTemplateTest {
+
+  @Test
+  void rendersRepeatedAndTypedPlaceholders() {
+    PromptTemplate template = PromptTemplate.compile("demo", 2, "Due {{day:date}} ({{day:date}}): {{text}}!");
+
+    assertEquals("demo@v2", template.id());
+    assertEquals("Due 2026-10-14 (2026-10-14): gym!",
+        template.render(Map.of("day", LocalDate.of(2026, 10, 14), "text", "gym")));
+  }
+
+  @Test
+  void rejectsMissingOrMistypedValues() {
+    PromptTemplate template = PromptTemplate.compile("demo", 1, "{{day:date}} {{text}}");
+
+    assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("text", "gym")));
+    assertThrows(IllegalArgumentException.class,
+        () -> template.render(Map.of("day", "2026-10-14", "text", "gym")));
+    assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("bad", 1, "{{text"));
+  }
+
+  @Test
+  void requestBodyEscapesPromptText() throws Exception {
+    String prompt = "Say \"hi\"\nthen \\ leave ✓";
+
+    JsonNode body = new ObjectMapper().readTree(ChatRequestWriter.write("model-x", prompt, true));
+
+    assertEquals("model-x", body.path("model").asText());
+    assertEquals(true, body.path("stream").asBoolean());
+    assertEquals(prompt, body.path("messages").path(0).path("content").asText());
+    assertEquals("user", body.path("messages").path(0).path("role").asText());
+  }
+}
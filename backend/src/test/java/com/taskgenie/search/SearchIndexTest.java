@@ -0,0 +1,80 @@
+package com.taskgenie.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.taskgenie.dto.SearchHit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest {
+
+  @Test
+  void ranksTitleMatchesAboveBodyMatchesAndFiltersByType() {
+    SearchIndex index = new SearchIndex();
+    UUID inTitle = UUID.randomUUID();
+    UUID inBody = UUID.randomUUID();
+    UUID log = UUID.randomUUID();
+    index.put("task", inTitle, "Quarterly report", "Collect numbers from finance");
+    index.put("task", inBody, "Email Sam", "Ask about the quarterly budget and the report deadline");
+    index.put("ai-log", log, "Summarize my report", "Here is a summary");
+    index.put("task", UUID.randomUUID(), "Buy groceries", "Milk and eggs");
+
+    List<SearchHit> hits = index.search("Quarterly REPORT", null, 10);
+    assertEquals(List.of(inTitle, inBody, log), hits.stream().map(SearchHit::id).toList());
+
+    List<SearchHit> logs = index.search("report", "ai-log", 10);
+    assertEquals(List.of(log), logs.stream().map(SearchHit::id).toList());
+  }
+
+  @Test
+  void updatesAndDeletesReplaceEarlierVersions() {
+    SearchIndex index = new SearchIndex();
+    UUID id = UUID.randomUUID();
+    index.put("task", id, "Draft proposal", null);
+    index.put("task", id, "Final proposal", null);
+
+    assertTrue(index.search("draft", null, 10).isEmpty());
+    assertEquals("Final proposal", index.search("proposal", null, 10).get(0).title());
+    assertEquals(1, index.size());
+
+    index.remove("task", id);
+    assertTrue(index.search("proposal", null, 10).isEmpty());
+  }
+
+  @Test
+  void liveWritesDuringSeedWinOverSeededRows() {
+    SearchIndex index = new SearchIndex();
+    UUID updated = UUID.randomUUID();
+    UUID deleted = UUID.randomUUID();
+    index.beginSeed();
+    index.put("task", updated, "New title", null);
+    index.remove("task", deleted);
+    index.seed("task", updated, "Old title", null);
+    index.seed("task", deleted, "Old title", null);
+    index.endSeed();
+
+    assertTrue(index.search("old", null, 10).isEmpty());
+    assertEquals(List.of(updated), index.search("new", null, 10).stream().map(SearchHit::id).toList());
+  }
+
+  @Test
+  void compactionKeepsLiveDocumentsSearchable() {
+    SearchIndex index = new SearchIndex();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      index.put("task", id, "task number " + i, null);
+    }
+    for (int i = 0; i < 2500; i++) {
+      index.remove("task", ids.get(i));
+    }
+
+    assertEquals(500, index.size());
+    assertEquals(ids.get(2999), index.search("2999", null, 1).get(0).id());
+    assertEquals(10, index.search("task", null, 10).size());
+  }
+}
@@ -0,0 +1,162 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.taskgenie.dto.AiLogView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+class AiLogWriterTest {
+
+  // Long enough that only a full batch or shutdown flushes during a test
+  private static final long NO_TIMED_FLUSH_MS = 3_600_000;
+
+  private final UUID userId = UUID.randomUUID();
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  // Prompts of each batch handed to JDBC, in order
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+  @Test
+  void dropNewestRejectsTheIncomingLogWhenFull() throws InterruptedException {
+    insertAll();
+    AiLogWriter writer = writer(2, 10, AiLogWriter.OverflowPolicy.DROP_NEWEST);
+
+    assertNotNull(writer.enqueue(userId, "a", "answer", null, null));
+    assertNotNull(writer.enqueue(userId, "b", "answer", null, null));
+    assertNull(writer.enqueue(userId, "c", "answer", null, null));
+    writer.shutdown();
+
+    assertEquals(List.of(List.of("a", "b")), batches);
+    assertEquals(1L, writer.getStats().get("dropped"));
+    assertEquals(2L, writer.getStats().get("enqueued"));
+  }
+
+  @Test
+  void dropOldestMakesRoomForTheIncomingLog() throws InterruptedException {
+    insertAll();
+    AiLogWriter writer = writer(2, 10, AiLogWriter.OverflowPolicy.DROP_OLDEST);
+
+    writer.enqueue(userId, "a", "answer", null, null);
+    writer.enqueue(userId, "b", "answer", null, null);
+    AiLogView kept = writer.enqueue(userId, "c", "answer", null, "trace-1");
+    writer.shutdown();
+
+    assertEquals("c", kept.prompt());
+    assertEquals("trace-1", kept.traceId());
+    assertEquals(List.of(List.of("b", "c")), batches);
+    assertEquals(1L, writer.getStats().get("dropped"));
+    assertEquals(3L, writer.getStats().get("enqueued"));
+  }
+
+  @Test
+  void fullBatchIsWrittenWithoutWaitingForTheInterval() throws InterruptedException {
+    insertAll();
+    AiLogWriter writer = writer(100, 2, AiLogWriter.OverflowPolicy.DROP_NEWEST);
+
+    writer.enqueue(userId, "a", "answer", null, null);
+    writer.enqueue(userId, "b", "answer", null, null);
+
+    verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    writer.shutdown();
+    // Shutdown found nothing left to drain
+    assertEquals(List.of(List.of("a", "b")), batches);
+  }
+
+  @Test
+  void countsWrittenSkippedAndFailedRows() throws InterruptedException {
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+        .thenAnswer(invocation -> {
+          record(invocation.getArgument(1), invocation.getArgument(3));
+          // Inserted, skipped by the unknown-user guard, inserted with no row count reported
+          return new int[][] {{1, 0, -2}};
+        })
+        .thenThrow(new RuntimeException("connection reset"));
+    AiLogWriter writer = writer(100, 3, AiLogWriter.OverflowPolicy.DROP_NEWEST);
+
+    writer.enqueue(userId, "a", "answer", null, null);
+    writer.enqueue(userId, "b", "answer", null, null);
+    writer.enqueue(userId, "c", "answer", null, null);
+    verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    writer.enqueue(userId, "d", "answer", null, null);
+    writer.shutdown();
+
+    assertEquals(2L, writer.getStats().get("written"));
+    assertEquals(1L, writer.getStats().get("skipped"));
+    assertEquals(1L, writer.getStats().get("failed"));
+    assertEquals(2L, writer.getStats().get("batches"));
+    assertEquals(0L, writer.getStats().get("queued"));
+    assertEquals(1, meterRegistry.get("ai.log.writer.batch").tag("outcome", "success").timer().count());
+    assertEquals(1, meterRegistry.get("ai.log.writer.batch").tag("outcome", "failure").timer().count());
+  }
+
+  @Test
+  void shutdownDrainsEveryQueuedLogInBatches() throws InterruptedException {
+    insertAll();
+    AiLogWriter writer = writer(100, 200, AiLogWriter.OverflowPolicy.DROP_NEWEST);
+    for (int i = 0; i < 5; i++) {
+      writer.enqueue(userId, "log " + i, "answer", null, null);
+    }
+    assertEquals(5, writer.pending(userId).size());
+
+    writer.shutdown();
+
+    assertEquals(List.of(List.of("log 0", "log 1", "log 2", "log 3", "log 4")), batches);
+    assertEquals(5L, writer.getStats().get("written"));
+    assertEquals(0, writer.pending(userId).size());
+  }
+
+  private AiLogWriter writer(int queueCapacity, int batchSize, AiLogWriter.OverflowPolicy overflowPolicy) {
+    return new AiLogWriter(jdbcTemplate, meterRegistry, queueCapacity, batchSize, NO_TIMED_FLUSH_MS, overflowPolicy);
+  }
+
+  // Every row in every batch counts as inserted
+  private void insertAll() {
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+        .thenAnswer(invocation -> {
+          Collection<Object> rows = invocation.getArgument(1);
+          record(rows, invocation.getArgument(3));
+          int[] counts = new int[rows.size()];
+          Arrays.fill(counts, 1);
+          return new int[][] {counts};
+        });
+  }
+
+  // Binds each row the way JDBC would and keeps its prompt; the writer reuses its batch list afterwards
+  private void record(Collection<Object> rows, ParameterizedPreparedStatementSetter<Object> setter) throws SQLException {
+    List<String> prompts = new ArrayList<>();
+    for (Object row : rows) {
+      PreparedStatement statement = mock(PreparedStatement.class);
+      setter.setValues(statement, row);
+      ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+      verify(statement).setString(eq(3), prompt.capture());
+      prompts.add(prompt.getValue());
+    }
+    batches.add(prompts);
+  }
+}
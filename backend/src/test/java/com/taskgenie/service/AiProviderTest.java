@@ -0,0 +1,144 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import com.taskgenie.util.CircuitBreaker;
+import com.taskgenie.util.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class AiProviderTest {
+
+  private static final String PROMPT = "Plan my week";
+
+  private final Queue<StubResponse> responses = new ArrayDeque<>();
+
+  private final AtomicInteger requests = new AtomicInteger();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private HttpServer server;
+
+  private String url;
+
+  @BeforeEach
+  void startStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/chat", exchange -> {
+      requests.incrementAndGet();
+      StubResponse response;
+      synchronized (responses) {
+        response = responses.poll();
+      }
+      byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", response.contentType());
+      exchange.sendResponseHeaders(response.status(), body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/chat";
+  }
+
+  @AfterEach
+  void stopStub() {
+    server.stop(0);
+  }
+
+  @Test
+  void retriesServerErrorsAndRateLimitsThenSucceeds() {
+    respond(503, "unavailable");
+    respond(429, "slow down");
+    respond(200, "{\"ok\":true,\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":30}}");
+
+    AiProvider client = client(3, 5);
+
+    assertEquals("{\"ok\":true,\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":30}}", client.complete(PROMPT).block());
+    assertEquals(3, requests.get());
+    assertEquals(2L, ((Map<?, ?>) client.getStats().get("retryBudget")).get("retries"));
+    assertEquals(1L, attempts("error", "503"));
+    assertEquals(1L, attempts("error", "429"));
+    assertEquals(1L, attempts("success", "200"));
+    assertEquals(30.0, meterRegistry.get("ai.provider.tokens").tag("type", "completion").summary().totalAmount());
+  }
+
+  @Test
+  void doesNotRetryClientErrors() {
+    respond(400, "bad request");
+
+    assertThrows(WebClientResponseException.BadRequest.class, () -> client(3, 5).complete(PROMPT).block());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  void openCircuitFailsFastWithoutCallingUpstream() {
+    respond(500, "boom");
+    respond(500, "boom");
+    AiProvider client = client(1, 2);
+
+    assertThrows(WebClientResponseException.class, () -> client.complete(PROMPT).block());
+    assertThrows(WebClientResponseException.class, () -> client.complete(PROMPT).block());
+    assertThrows(CircuitBreaker.CircuitOpenException.class, () -> client.complete(PROMPT).block());
+    assertEquals(2, requests.get());
+    assertEquals(0L, ((Map<?, ?>) client.getStats().get("retryBudget")).get("retries"));
+    assertFalse(client.isAvailable());
+    assertEquals(1.0, client.getCompletionWindow().errorRate());
+  }
+
+  @Test
+  void streamsEventDataUntilDoneAndRetriesBeforeFirstEvent() {
+    respond(502, "bad gateway");
+    responses.add(new StubResponse(200, "text/event-stream", "data: a\n\ndata: b\n\ndata: [DONE]\n\n"));
+
+    assertEquals(List.of("a", "b"), client(3, 5).stream(PROMPT).collectList().block());
+    assertEquals(2, requests.get());
+    assertEquals(1L, meterRegistry.get("ai.provider.first.event").timer().count());
+    assertEquals(1L, attempts("success", "200"));
+  }
+
+  private AiProvider client(int maxAttempts, int breakerThreshold) {
+    return new AiProvider(
+        "test",
+        "test-model",
+        WebClient.create(),
+        url,
+        "test-key",
+        maxAttempts,
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        new RetryBudget(0.1, 100),
+        breakerThreshold,
+        Duration.ofMinutes(1),
+        10,
+        meterRegistry);
+  }
+
+  private long attempts(String outcome, String status) {
+    return meterRegistry.get("ai.provider.requests").tag("outcome", outcome).tag("status", status).timer().count();
+  }
+
+  private void respond(int status, String body) {
+    responses.add(new StubResponse(status, "application/json", body));
+  }
+
+  private record StubResponse(int status, String contentType, String body) {
+  }
+}
@@ -0,0 +1,125 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import com.taskgenie.util.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class AiRouterTest {
+
+  private final List<HttpServer> servers = new ArrayList<>();
+
+  @AfterEach
+  void stopStubs() {
+    servers.forEach(server -> server.stop(0));
+  }
+
+  @Test
+  void hedgesToSecondProviderWhenPrimaryPassesItsP95() throws IOException {
+    AiProvider slow = provider("slow", stub(200, "slow", 2000));
+    AiProvider fast = provider("fast", stub(200, "fast", 0));
+    slow.getCompletionWindow().recordSuccess(Duration.ofMillis(20).toNanos());
+    fast.getCompletionWindow().recordSuccess(Duration.ofMillis(200).toNanos());
+    AiRouter router = router(List.of(slow, fast), true);
+
+    AiRouter.Completion completion = router.complete("Plan my week").block(Duration.ofSeconds(5));
+
+    assertEquals("fast", completion.body());
+    assertEquals("fast", completion.call().provider());
+    assertTrue(completion.call().hedged());
+    assertTrue(completion.call().latencyMs() < 2000);
+    assertEquals(1L, router.getStats().get("hedges"));
+    assertEquals(1L, router.getStats().get("backupWins"));
+  }
+
+  @Test
+  void failsOverWhenPrimaryFailsEvenWithHedgingOff() throws IOException {
+    AiProvider broken = provider("broken", stub(500, "boom", 0));
+    AiProvider healthy = provider("healthy", stub(200, "ok", 0));
+    AiRouter router = router(List.of(broken, healthy), false);
+
+    AiRouter.Completion completion = router.complete("Plan my week").block(Duration.ofSeconds(5));
+
+    assertEquals("ok", completion.body());
+    assertEquals("healthy", completion.call().provider());
+    assertEquals(1L, router.getStats().get("failovers"));
+    assertEquals(0L, router.getStats().get("hedges"));
+  }
+
+  @Test
+  void prefersLowLatencyAndAvoidsErrors() throws IOException {
+    AiProvider slow = provider("slow", stub(200, "slow", 0));
+    AiProvider fast = provider("fast", stub(200, "fast", 0));
+    AiRouter router = router(List.of(slow, fast), false);
+    for (int i = 0; i < 3; i++) {
+      slow.getCompletionWindow().recordSuccess(Duration.ofMillis(100).toNanos());
+      fast.getCompletionWindow().recordSuccess(Duration.ofMillis(30).toNanos());
+    }
+    assertSame(fast, router.select(null, false));
+
+    for (int i = 0; i < 3; i++) {
+      fast.getCompletionWindow().recordFailure();
+    }
+    assertSame(slow, router.select(null, false));
+    assertSame(fast, router.select(slow, false));
+    assertFalse(((Map<?, ?>) router.getStats().get("providers")).isEmpty());
+  }
+
+  private AiRouter router(List<AiProvider> providers, boolean hedge) {
+    return new AiRouter(providers, 1, 0, hedge, Duration.ofMillis(50), new RetryBudget(0.1, 100));
+  }
+
+  private AiProvider provider(String name, String url) {
+    return new AiProvider(
+        name,
+        name + "-model",
+        WebClient.create(),
+        url,
+        "test-key",
+        1,
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        new RetryBudget(0.1, 100),
+        5,
+        Duration.ofMinutes(1),
+        10,
+        new SimpleMeterRegistry());
+  }
+
+  private String stub(int status, String body, long delayMs) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/chat", exchange -> {
+      try {
+        Thread.sleep(delayMs);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      } catch (IOException ex) {
+        // The hedge that lost was cancelled and the client is gone
+      }
+    });
+    server.start();
+    servers.add(server);
+    return "http://localhost:" + server.getAddress().getPort() + "/chat";
+  }
+}
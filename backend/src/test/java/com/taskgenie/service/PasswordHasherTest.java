@@ -0,0 +1,75 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHasherTest {
+
+  @Test
+  void rejectsAtOnceWhenThreadsAndQueueAreFull() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        return "hash:" + rawPassword;
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return encodedPassword.equals(encode(rawPassword));
+      }
+    };
+    PasswordHasher hasher = new PasswordHasher(blocking, 1, 1);
+    try {
+      CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+      while (((Integer) hasher.getStats().get("queued")) == 0) {
+        Thread.onSpinWait();
+      }
+
+      assertThrows(RejectedExecutionException.class, () -> hasher.encode("c"));
+
+      release.countDown();
+      assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+      assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+      Map<String, Object> stats = hasher.getStats();
+      assertEquals(1L, stats.get("rejected"));
+    } finally {
+      release.countDown();
+      hasher.shutdown();
+    }
+  }
+
+  @Test
+  void flagsHashesBelowTheConfiguredStrength() {
+    PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(6), 1, 4);
+    try {
+      String weak = new BCryptPasswordEncoder(4).encode("pw");
+
+      assertTrue(hasher.matches("pw", weak));
+      assertTrue(hasher.needsRehash(weak));
+      assertFalse(hasher.needsRehash(hasher.encode("pw")));
+    } finally {
+      hasher.shutdown();
+    }
+  }
+}
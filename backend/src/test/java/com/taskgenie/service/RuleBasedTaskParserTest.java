@@ -0,0 +1,47 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.taskgenie.dto.ParsedTask;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RuleBasedTaskParserTest {
+
+  // A Wednesday
+  private static final LocalDate TODAY = LocalDate.of(2026, 10, 14);
+
+  private final RuleBasedTaskParser parser = new RuleBasedTaskParser();
+
+  @Test
+  void parsesShortPhraseWithRelativeDate() {
+    ParsedTask task = parser.parse("gym tomorrow", TODAY).orElseThrow();
+
+    assertEquals(new ParsedTask("Gym", null, "Health", "2026-10-15", "Medium", "Pending"), task);
+  }
+
+  @Test
+  void appliesPriorityKeywordsAndWeekdays() {
+    ParsedTask urgent = parser.parse("urgent finish project report by friday", TODAY).orElseThrow();
+    assertEquals(new ParsedTask("Finish project report", null, "Work", "2026-10-16", "High", "Pending"), urgent);
+
+    ParsedTask later = parser.parse("study for exam in 3 days, not urgent", TODAY).orElseThrow();
+    assertEquals(new ParsedTask("Study for exam", null, "Education", "2026-10-17", "Low", "Pending"), later);
+
+    ParsedTask dated = parser.parse("Doctor appointment on Jan 5th", TODAY).orElseThrow();
+    assertEquals("2027-01-05", dated.dueDate());
+  }
+
+  @Test
+  void defersAmbiguousInputToTheLlm() {
+    assertTrue(parser.parse("doctor at 5pm", TODAY).isEmpty());
+    assertTrue(parser.parse("team meeting about the gym", TODAY).isEmpty());
+    assertTrue(parser.parse("workout wednesday", TODAY).isEmpty());
+    assertTrue(parser.parse("buy flowers tomorrow", TODAY).isEmpty());
+    assertTrue(parser.parse("urgent homework whenever", TODAY).isEmpty());
+
+    assertEquals(Map.of("rules", 0L, "llm", 5L), parser.getStats());
+  }
+}
@@ -0,0 +1,80 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.repository.TaskRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TaskStatsServiceTest {
+
+  private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+  @Test
+  void doesNotSeedFromQueryThatMissedAWriteInProgress() {
+    UUID userId = UUID.randomUUID();
+    TaskStatsService service = new TaskStatsService(taskRepository, 10, 60_000);
+    TaskStatsService.Mutation write = service.begin(userId);
+    write.added(task("Pending"));
+    write.commit();
+    // The query reads the rows from before the write, which commits before the seed is checked
+    when(taskRepository.countByUserGrouped(userId)).thenAnswer(invocation -> {
+      write.close();
+      return rows(0);
+    }).thenReturn(rows(1));
+
+    assertEquals(0, service.getStats(userId).total());
+    assertEquals(1, service.getStats(userId).total());
+    assertEquals(1, service.getStats(userId).total());
+
+    verify(taskRepository, times(2)).countByUserGrouped(userId);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedIdleCountersAndReseedsAfterTtl() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    when(taskRepository.countByUserGrouped(first)).thenReturn(rows(1));
+    when(taskRepository.countByUserGrouped(second)).thenReturn(rows(2));
+    AtomicLong now = new AtomicLong();
+    TaskStatsService service = new TaskStatsService(taskRepository, 1, 50, now::get);
+
+    TaskStatsService.Mutation write = service.begin(first);
+    assertEquals(2, service.getStats(second).total());
+    // The first user's counters have a write in progress, so they outlive the bound
+    assertEquals(2, service.cacheStats().size());
+    write.close();
+    assertEquals(1, service.getStats(first).total());
+    assertEquals(1, service.cacheStats().size());
+    assertEquals(1, service.cacheStats().evictions());
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(49));
+    assertEquals(1, service.getStats(first).total());
+    assertEquals(0, service.cacheStats().expirations());
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(1, service.getStats(first).total());
+    assertEquals(1, service.cacheStats().expirations());
+    verify(taskRepository, times(2)).countByUserGrouped(first);
+  }
+
+  private static List<Object[]> rows(long count) {
+    List<Object[]> rows = new ArrayList<>();
+    if (count > 0) {
+      rows.add(new Object[] {"Pending", "High", "Work", null, count});
+    }
+    return rows;
+  }
+
+  private static TaskView task(String status) {
+    return new TaskView(UUID.randomUUID(), "Title", null, "Work", "High", status, null, null);
+  }
+}
@@ -0,0 +1,157 @@
+package com.taskgenie.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.taskgenie.dto.TaskBatchRequest;
+import com.taskgenie.dto.TaskBatchResult;
+import com.taskgenie.dto.TaskImportResult;
+import com.taskgenie.dto.TaskView;
+import com.taskgenie.model.Task;
+import com.taskgenie.repository.TaskRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TaskTransferServiceTest {
+
+  private final UUID userId = UUID.randomUUID();
+
+  private final TaskService taskService = mock(TaskService.class);
+
+  private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+  // Tasks handed to applyBatch, in order
+  private final List<Task> written = new ArrayList<>();
+
+  @Test
+  void reportsRejectedRowsByLineAndKeepsGoing() {
+    acceptBatches();
+    String input = "{\"title\":\"First\"}\n"
+        + "not json\n"
+        + "{\"title\":\" \"}\n"
+        + "[1]\n"
+        + "{\"title\":\"" + "x".repeat((1 << 20) + 10) + "\"}\n"
+        + "{\"title\":\"Dated\",\"dueDate\":\"soon\"}\r\n"
+        + "\n"
+        + "{\"title\":\"Last\"}";
+
+    TaskImportResult result = importNdjson(new TaskTransferService(taskService, taskRepository, 500), input);
+
+    assertEquals(2, result.imported());
+    assertEquals(5, result.failed());
+    assertEquals(List.of(2L, 3L, 4L, 5L, 6L), result.errors().stream().map(TaskImportResult.RowError::line).toList());
+    assertEquals("Line exceeds 1048576 characters.", result.errors().get(3).message());
+    assertEquals(List.of("First", "Last"), written.stream().map(Task::getTitle).toList());
+  }
+
+  @Test
+  void countsEveryFailureButReportsOnlyTheFirstHundred() {
+    acceptBatches();
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 150; i++) {
+      input.append("{\"title\":null}\n");
+    }
+
+    TaskImportResult result = importNdjson(new TaskTransferService(taskService, taskRepository, 500), input.toString());
+
+    assertEquals(0, result.imported());
+    assertEquals(150, result.failed());
+    assertEquals(100, result.errors().size());
+    assertEquals(100, result.errors().get(99).line());
+    assertTrue(result.errorsTruncated());
+  }
+
+  @Test
+  void retriesAFailedChunkRowByRow() {
+    when(taskService.applyBatch(eq(userId), any())).thenAnswer(invocation -> {
+      TaskBatchRequest request = invocation.getArgument(1);
+      if (request.create().stream().anyMatch(task -> task.getTitle().equals("Rejected"))) {
+        throw new RuntimeException("constraint violated");
+      }
+      return created(request);
+    });
+    when(taskService.createTask(eq(userId), any())).thenAnswer(invocation -> {
+      Task task = invocation.getArgument(1);
+      if (task.getTitle().equals("Rejected")) {
+        throw new RuntimeException("constraint violated");
+      }
+      return TaskView.from(task);
+    });
+
+    TaskImportResult result = importNdjson(
+        new TaskTransferService(taskService, taskRepository, 2),
+        "{\"title\":\"A\"}\n{\"title\":\"Rejected\"}\n{\"title\":\"C\"}\n");
+
+    assertEquals(2, result.imported());
+    assertEquals(1, result.failed());
+    assertEquals(List.of(new TaskImportResult.RowError(2, "constraint violated")), result.errors());
+    verify(taskService, times(2)).applyBatch(eq(userId), any());
+    verify(taskService, times(2)).createTask(eq(userId), any());
+  }
+
+  @Test
+  void exportedCsvAndNdjsonImportBackUnchanged() {
+    acceptBatches();
+    List<TaskView> tasks = List.of(
+        new TaskView(UUID.randomUUID(), "Plan, review", "He said \"hi\"\nthen left", null, "High", "Pending",
+            LocalDate.of(2026, 11, 2), LocalDateTime.of(2026, 10, 1, 9, 30)),
+        new TaskView(UUID.randomUUID(), "Plain", null, "Work", null, "Completed", null, LocalDateTime.of(2026, 10, 2, 8, 0)));
+    when(taskRepository.streamViewsByUserId(userId)).thenAnswer(invocation -> tasks.stream());
+    TaskTransferService service = new TaskTransferService(taskService, taskRepository, 500);
+
+    for (String format : List.of(TaskTransferService.FORMAT_CSV, TaskTransferService.FORMAT_NDJSON)) {
+      written.clear();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(2, service.exportTasks(userId, format, out));
+
+      TaskImportResult result = service.importTasks(userId, format, new ByteArrayInputStream(out.toByteArray()));
+
+      assertEquals(2, result.imported(), format);
+      assertEquals(0, result.failed(), format);
+      for (int i = 0; i < tasks.size(); i++) {
+        TaskView expected = tasks.get(i);
+        Task actual = written.get(i);
+        assertEquals(expected.title(), actual.getTitle(), format);
+        assertEquals(expected.description(), actual.getDescription(), format);
+        assertEquals(expected.category(), actual.getCategory(), format);
+        assertEquals(expected.priority(), actual.getPriority(), format);
+        assertEquals(expected.status(), actual.getStatus(), format);
+        assertEquals(expected.dueDate(), actual.getDueDate(), format);
+      }
+    }
+  }
+
+  @Test
+  void rejectsChunkSizesTheBatchEndpointWouldRefuse() {
+    assertThrows(IllegalArgumentException.class, () -> new TaskTransferService(taskService, taskRepository, 0));
+    assertThrows(IllegalArgumentException.class, () -> new TaskTransferService(taskService, taskRepository, 1001));
+  }
+
+  private void acceptBatches() {
+    when(taskService.applyBatch(eq(userId), any())).thenAnswer(invocation -> created(invocation.getArgument(1)));
+  }
+
+  private TaskBatchResult created(TaskBatchRequest request) {
+    written.addAll(request.create());
+    return new TaskBatchResult(request.create().stream().map(TaskView::from).toList(), List.of(), 0);
+  }
+
+  private TaskImportResult importNdjson(TaskTransferService service, String input) {
+    return service.importTasks(
+        userId, TaskTransferService.FORMAT_NDJSON, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+  }
+}
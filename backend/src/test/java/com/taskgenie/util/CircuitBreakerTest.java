@@ -0,0 +1,54 @@
+package com.taskgenie.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class CircuitBreakerTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  private final CircuitBreaker breaker = new CircuitBreaker(
+      "test", 2, Duration.ofSeconds(10), error -> !(error instanceof IllegalArgumentException), now::get);
+
+  @Test
+  void opensAfterConsecutiveFailuresAndClosesAfterSuccessfulTrial() {
+    AtomicInteger calls = new AtomicInteger();
+    Mono<String> failing = Mono.defer(() -> {
+      calls.incrementAndGet();
+      return Mono.error(new IllegalStateException("down"));
+    });
+
+    assertThrows(IllegalStateException.class, () -> breaker.run(failing).block());
+    assertThrows(IllegalStateException.class, () -> breaker.run(failing).block());
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertThrows(CircuitBreaker.CircuitOpenException.class, () -> breaker.run(failing).block());
+    assertEquals(2, calls.get());
+
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertEquals("ok", breaker.run(Mono.just("ok")).block());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  void failedTrialReopensAndIgnoredErrorsDoNotCount() {
+    IllegalArgumentException badRequest = new IllegalArgumentException("bad request");
+    for (int i = 0; i < 3; i++) {
+      assertThrows(IllegalArgumentException.class, () -> breaker.run(Mono.error(badRequest)).block());
+    }
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+    Mono<String> failing = Mono.error(new IllegalStateException("down"));
+    assertThrows(IllegalStateException.class, () -> breaker.run(failing).block());
+    assertThrows(IllegalStateException.class, () -> breaker.run(failing).block());
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertThrows(IllegalStateException.class, () -> breaker.run(failing).block());
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertThrows(CircuitBreaker.CircuitOpenException.class, () -> breaker.run(Mono.just("ok")).block());
+  }
+}
@@ -0,0 +1,51 @@
+package com.taskgenie.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+  @Test
+  void readsQuotedFieldsAcrossLinesAndTracksRecordLines() throws IOException {
+    CsvReader reader = new CsvReader(new StringReader(
+        "title,description\r\n\"Plan, review\",\"He said \"\"hi\"\"\nthen left\"\r\nlast,\n"));
+
+    assertEquals(List.of("title", "description"), reader.next());
+    assertEquals(1, reader.getRecordLine());
+    assertEquals(List.of("Plan, review", "He said \"hi\"\nthen left"), reader.next());
+    assertEquals(2, reader.getRecordLine());
+    assertEquals(List.of("last", ""), reader.next());
+    assertEquals(4, reader.getRecordLine());
+    assertNull(reader.next());
+  }
+
+  @Test
+  void readsFinalRecordWithoutTrailingNewline() throws IOException {
+    CsvReader reader = new CsvReader(new StringReader("a,b"));
+
+    assertEquals(List.of("a", "b"), reader.next());
+    assertNull(reader.next());
+  }
+
+  @Test
+  void rejectsUnterminatedQuote() throws IOException {
+    CsvReader reader = new CsvReader(new StringReader("ok\n\"never closed\n"));
+
+    assertEquals(List.of("ok"), reader.next());
+    assertThrows(RuntimeException.class, reader::next);
+  }
+
+  @Test
+  void escapesOnlyWhenNeeded() {
+    assertEquals("plain", CsvReader.escape("plain"));
+    assertEquals("\"a,b\"", CsvReader.escape("a,b"));
+    assertEquals("\"say \"\"hi\"\"\"", CsvReader.escape("say \"hi\""));
+    assertEquals("", CsvReader.escape(null));
+  }
+}
@@ -0,0 +1,48 @@
+package com.taskgenie.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private static final RateLimiter.Limit TWO_PER_SECOND = new RateLimiter.Limit(2, 2);
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  void allowsBurstThenReportsWaitUntilRefill() {
+    RateLimiter limiter = new RateLimiter(4, 100, Duration.ofMinutes(1), now::get);
+
+    assertEquals(0, limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(0, limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(Duration.ofMillis(500).toNanos(), limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(0, limiter.tryAcquire("b", TWO_PER_SECOND));
+
+    now.addAndGet(Duration.ofMillis(500).toNanos());
+    assertEquals(0, limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertTrue(limiter.tryAcquire("a", TWO_PER_SECOND) > 0);
+    assertEquals(2L, limiter.getStats().get("limited"));
+  }
+
+  @Test
+  void dropsIdleAndLeastRecentlyUsedBuckets() {
+    RateLimiter limiter = new RateLimiter(1, 2, Duration.ofSeconds(10), now::get);
+    limiter.tryAcquire("a", TWO_PER_SECOND);
+    limiter.tryAcquire("b", TWO_PER_SECOND);
+    limiter.tryAcquire("a", TWO_PER_SECOND);
+    limiter.tryAcquire("c", TWO_PER_SECOND);
+
+    // "b" was least recently used, so "a" keeps its emptied bucket
+    assertEquals(2, limiter.size());
+    assertTrue(limiter.tryAcquire("a", TWO_PER_SECOND) > 0);
+
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    limiter.tryAcquire("d", TWO_PER_SECOND);
+    assertEquals(1, limiter.size());
+    assertEquals(3L, limiter.getStats().get("evicted"));
+  }
+}
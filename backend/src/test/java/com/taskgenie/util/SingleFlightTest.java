@@ -0,0 +1,55 @@
+package com.taskgenie.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  @Test
+  void concurrentCallersShareOneExecution() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger executions = new AtomicInteger();
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+
+    CompletableFuture<String> leader = singleFlight.execute("key", () -> {
+      executions.incrementAndGet();
+      return upstream;
+    });
+    CompletableFuture<String> follower = singleFlight.execute("key", () -> {
+      executions.incrementAndGet();
+      return CompletableFuture.completedFuture("other");
+    });
+    upstream.complete("result");
+
+    assertSame(leader, follower);
+    assertEquals("result", follower.join());
+    assertEquals(1, executions.get());
+    assertEquals(1, singleFlight.getCoalescedCount());
+    assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  void failureReachesEveryWaiterAndIsNotRemembered() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+
+    CompletableFuture<String> leader = singleFlight.execute("key", () -> upstream);
+    CompletableFuture<String> follower = singleFlight.execute("key", () -> upstream);
+    upstream.completeExceptionally(new IllegalStateException("upstream down"));
+
+    CompletionException error = assertThrows(CompletionException.class, follower::join);
+    assertTrue(error.getCause() instanceof IllegalStateException);
+    assertTrue(leader.isCompletedExceptionally());
+
+    CompletableFuture<String> retry =
+        singleFlight.execute("key", () -> CompletableFuture.completedFuture("recovered"));
+    assertEquals("recovered", retry.join());
+  }
+}